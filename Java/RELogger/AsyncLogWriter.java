@@ -0,0 +1,384 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: AsyncLogWriter.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Background consumer for asynchronous logging. Application threads publish
+ * records into a LogRingBuffer and return immediately; a single daemon thread
+ * drains the buffer and performs all formatting, console and file I/O.
+ * When the buffer is full the configured BackpressurePolicy decides whether
+ * the caller waits or the event is dropped; both outcomes are counted.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Owns the ring buffer and the writer thread of the asynchronous mode.
+ */
+final class AsyncLogWriter implements Runnable {
+
+    /** Number of empty polls the writer spins through before parking. */
+    private static final int SPIN_TRIES = 200;
+
+    /** Upper bound for a single park of the idle writer thread. */
+    private static final long MAX_PARK_NANOS = 10_000_000L;
+
+    /** Result of {@link #claim(LogLevel)} when the policy discarded the record. */
+    static final long DROPPED = -1;
+
+    /** Result of {@link #claim(LogLevel)} when the writer is stopped. */
+    static final long STOPPED = -2;
+
+    /** Pseudo call site reported by the overload summary lines. */
+    private static final LogSite SUMMARY_SITE = new LogSite("RELogger", 0, "backpressure");
+
+    /** Queue of pending events shared with the producers. */
+    private final LogRingBuffer ring;
+
+    /** The thread draining {@link #ring}. */
+    private final Thread thread;
+
+    /** Cleared by {@link #stop()}; the writer drains everything before exiting. */
+    private volatile boolean running = true;
+
+    /** Set while the writer is parked, so producers know to wake it up. */
+    private volatile boolean parked;
+
+    /** What producers do when the buffer is full. */
+    private final BackpressurePolicy policy;
+
+    /** Buffer occupancy above which {@link BackpressurePolicy.Mode#SAMPLE} starts sampling. */
+    private final int sampleWatermark;
+
+    /** Events dropped by the policy, indexed by level ordinal. */
+    private final LongAdder[] dropped = newCounters();
+
+    /** Events whose caller had to wait for space, indexed by level ordinal. */
+    private final LongAdder[] blocked = newCounters();
+
+    /** Drop counts already included in a summary line; writer thread only. */
+    private final long[] reportedDropped = new long[LogLevel.values().length];
+
+    /** Block counts already included in a summary line; writer thread only. */
+    private final long[] reportedBlocked = new long[LogLevel.values().length];
+
+    /** Earliest time of the next summary line; writer thread only. */
+    private long nextSummaryMillis;
+
+    /** Reusable event for summary lines; writer thread only. */
+    private final LogEvent summaryEvent = new LogEvent();
+
+    /**
+     * Creates the writer and its ring buffer. The thread is not started.
+     *
+     * @param capacity Minimum number of buffered events.
+     * @param policy   What producers do when the buffer is full.
+     */
+    AsyncLogWriter(int capacity, BackpressurePolicy policy) {
+        this.ring = new LogRingBuffer(capacity);
+        this.policy = policy;
+        this.sampleWatermark = ring.capacity() - ring.capacity() / 4;
+        this.thread = new Thread(this, "RELogger-AsyncWriter");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Creates one counter per log level.
+     *
+     * @return The zeroed counters.
+     */
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[LogLevel.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /** Starts the writer thread. */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Reserves a slot for a new record. What happens while the buffer is
+     * full depends on the {@link BackpressurePolicy}. A successful claim must
+     * be followed by filling {@link #slot(long)} and calling {@link #commit(long)}.
+     * The writer thread itself, logging e.g. from an argument's {@code toString()},
+     * is told to write synchronously rather than wait on its own buffer.
+     *
+     * @param level The severity level of the record.
+     * @return The claimed sequence, {@link #DROPPED} if the policy discarded the
+     *         record, or {@link #STOPPED} if the caller must write synchronously.
+     */
+    long claim(LogLevel level) {
+        if (Thread.currentThread() == thread) {
+            return STOPPED;
+        }
+        int ordinal = level.getOrdinal();
+        boolean droppable = ordinal < policy.getThreshold().getOrdinal();
+        if (policy.getMode() == BackpressurePolicy.Mode.SAMPLE && droppable
+                && ring.size() >= sampleWatermark
+                && ThreadLocalRandom.current().nextInt(policy.getSampleRate()) != 0) {
+            dropped[ordinal].increment();
+            return DROPPED;
+        }
+
+        long sequence = ring.tryClaim();
+        if (sequence < 0) {
+            switch (policy.getMode()) {
+                case DROP_OLDEST -> sequence = claimByEvicting();
+                case DROP_BELOW_LEVEL, SAMPLE -> {
+                    if (droppable) {
+                        dropped[ordinal].increment();
+                        return DROPPED;
+                    }
+                    sequence = awaitSlot(ordinal);
+                }
+                default -> sequence = awaitSlot(ordinal);
+            }
+        }
+        if (sequence >= 0 && !running) {
+            // Claimed after stop() may have finished draining: hand back an empty slot
+            ring.slot(sequence).clear();
+            ring.publish(sequence);
+            return STOPPED;
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the event slot of a claimed sequence.
+     *
+     * @param sequence A sequence returned by {@link #claim(LogLevel)}.
+     * @return The slot to fill.
+     */
+    LogEvent slot(long sequence) {
+        return ring.slot(sequence);
+    }
+
+    /**
+     * Hands a filled slot to the writer thread.
+     *
+     * @param sequence A sequence returned by {@link #claim(LogLevel)}.
+     */
+    void commit(long sequence) {
+        ring.publish(sequence);
+        if (parked) {
+            wakeWriter();
+        }
+    }
+
+    /**
+     * Waits until a slot becomes free, counting the caller as blocked.
+     *
+     * @param ordinal Level ordinal of the waiting event.
+     * @return The claimed sequence, or {@link #STOPPED} if the writer stopped meanwhile.
+     */
+    private long awaitSlot(int ordinal) {
+        blocked[ordinal].increment();
+        long sequence;
+        while ((sequence = ring.tryClaim()) < 0) {
+            if (!running) {
+                return STOPPED;
+            }
+            wakeWriter();
+            Thread.onSpinWait();
+        }
+        return sequence;
+    }
+
+    /**
+     * Discards the oldest buffered events until a slot can be claimed.
+     *
+     * @return The claimed sequence, or {@link #STOPPED} if the writer stopped meanwhile.
+     */
+    private long claimByEvicting() {
+        long sequence;
+        while ((sequence = ring.tryClaim()) < 0) {
+            if (!running) {
+                return STOPPED;
+            }
+            long oldest = ring.tryConsume();
+            if (oldest >= 0) {
+                LogLevel evicted = ring.slot(oldest).level;
+                if (evicted != null) {
+                    dropped[evicted.getOrdinal()].increment();
+                }
+                ring.release(oldest);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the number of events dropped at the given level.
+     *
+     * @param level The level to query.
+     * @return The dropped event count.
+     */
+    long droppedCount(LogLevel level) {
+        return dropped[level.getOrdinal()].sum();
+    }
+
+    /**
+     * Returns the number of events at the given level whose caller had to
+     * wait for buffer space.
+     *
+     * @param level The level to query.
+     * @return The blocked event count.
+     */
+    long blockedCount(LogLevel level) {
+        return blocked[level.getOrdinal()].sum();
+    }
+
+    /**
+     * Stops accepting work, waits until all published events have been
+     * written and the writer thread has terminated, then writes on the
+     * calling thread any event whose producer claimed its slot before
+     * seeing the stop but published it after the writer's last drain.
+     * Producers claiming later see the stop and write synchronously.
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        while (ring.size() > 0) {
+            if (drain() > 0) {
+                RELogger.flushOutput();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Unparks the writer if it is sleeping. */
+    private void wakeWriter() {
+        if (parked) {
+            parked = false;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Writer loop: drain everything available, flush once per batch and
+     * back off progressively while the buffer stays empty.
+     */
+    @Override
+    public void run() {
+        int idle = 0;
+        nextSummaryMillis = System.currentTimeMillis() + policy.getSummaryIntervalMillis();
+        while (true) {
+            boolean stopping = !running;
+            int written = drain();
+            if (stopping || written > 0 || idle >= SPIN_TRIES) {
+                long now = System.currentTimeMillis();
+                if (stopping || now >= nextSummaryMillis) {
+                    written += reportOverload(now);
+                    nextSummaryMillis = now + policy.getSummaryIntervalMillis();
+                }
+            }
+            if (written > 0) {
+                RELogger.flushOutput();
+                idle = 0;
+            } else if (stopping) {
+                break;
+            } else if (++idle < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                parked = true;
+                if (ring.size() == 0 && running) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                parked = false;
+            }
+        }
+    }
+
+    /**
+     * Logs one summary line per level whose drop or block count grew since
+     * the previous summary.
+     *
+     * @param now Current time in epoch milliseconds.
+     * @return The number of summary lines written.
+     */
+    private int reportOverload(long now) {
+        int lines = 0;
+        for (LogLevel level : LogLevel.values()) {
+            int i = level.getOrdinal();
+            long droppedNow = dropped[i].sum();
+            if (droppedNow != reportedDropped[i]) {
+                writeSummary(now, "dropped " + (droppedNow - reportedDropped[i]) + " " + level + " events");
+                reportedDropped[i] = droppedNow;
+                lines++;
+            }
+            long blockedNow = blocked[i].sum();
+            if (blockedNow != reportedBlocked[i]) {
+                writeSummary(now, "blocked " + (blockedNow - reportedBlocked[i]) + " " + level + " events");
+                reportedBlocked[i] = blockedNow;
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Writes one overload summary line at WARN level.
+     *
+     * @param now     Current time in epoch milliseconds.
+     * @param message The summary text.
+     */
+    private void writeSummary(long now, String message) {
+        summaryEvent.set(LogLevel.WARN, now * 1000, SUMMARY_SITE, null, -1, null, thread.getName(), message);
+        summaryEvent.recordOnly = LogLevel.WARN.getOrdinal() < RELogger.getLevel().getOrdinal();
+        RELogger.writeEvent(summaryEvent, false);
+        summaryEvent.clear();
+    }
+
+    /**
+     * Writes every event that is currently published.
+     *
+     * @return The number of events written.
+     */
+    private int drain() {
+        int count = 0;
+        long sequence;
+        while ((sequence = ring.tryConsume()) >= 0) {
+            LogEvent event = ring.slot(sequence);
+            if (event.level == null) {
+                // Handed back by a producer that saw the stop
+                ring.release(sequence);
+                continue;
+            }
+            try {
+                RELogger.writeEvent(event, false);
+            } catch (RuntimeException e) {
+                System.err.println("[LOGGER ERROR] Async writer failed: " + e);
+            } finally {
+                ring.release(sequence);
+            }
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: BackpressurePolicy.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Decides what a logging thread does when the asynchronous ring buffer is
+ * full: wait for space, evict the oldest event, drop low-severity events, or
+ * sample them. Policies are immutable and created through factory methods.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Objects;
+
+/**
+ * Overload behaviour of the asynchronous mode.
+ * <p>
+ * Every event that is dropped or that had to wait for space is counted per
+ * {@link LogLevel}, and the writer periodically logs a summary such as
+ * {@code dropped 1234 DEBUG events}, so overload is never silent.
+ */
+public final class BackpressurePolicy {
+
+    /** The available overload strategies. */
+    public enum Mode {
+        /** Wait until the writer frees a slot. Nothing is ever lost. */
+        BLOCK,
+        /** Evict the oldest buffered event to make room. Callers never wait. */
+        DROP_OLDEST,
+        /** Drop events below the threshold level; wait for the others. */
+        DROP_BELOW_LEVEL,
+        /**
+         * Once the buffer is three quarters full, keep only one in N events
+         * below the threshold level and drop the rest; wait for the others.
+         */
+        SAMPLE
+    }
+
+    /** Default interval between two drop summary lines. */
+    private static final long DEFAULT_SUMMARY_INTERVAL_MILLIS = 10_000L;
+
+    /** The selected strategy. */
+    private final Mode mode;
+
+    /** Events at or above this level are never dropped. */
+    private final LogLevel threshold;
+
+    /** Keep one in this many events while sampling. */
+    private final int sampleRate;
+
+    /** Minimum time between two drop summary lines. */
+    private final long summaryIntervalMillis;
+
+    private BackpressurePolicy(Mode mode, LogLevel threshold, int sampleRate, long summaryIntervalMillis) {
+        this.mode = mode;
+        this.threshold = threshold;
+        this.sampleRate = sampleRate;
+        this.summaryIntervalMillis = summaryIntervalMillis;
+    }
+
+    /**
+     * Callers wait for free space; no event is ever dropped.
+     *
+     * @return The blocking policy.
+     */
+    public static BackpressurePolicy block() {
+        return new BackpressurePolicy(Mode.BLOCK, LogLevel.TRACE, 1, DEFAULT_SUMMARY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * The oldest buffered event is discarded to make room for the new one.
+     *
+     * @return The drop-oldest policy.
+     */
+    public static BackpressurePolicy dropOldest() {
+        return new BackpressurePolicy(Mode.DROP_OLDEST, LogLevel.TRACE, 1, DEFAULT_SUMMARY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Events below {@code threshold} are dropped while the buffer is full;
+     * events at or above it wait for space.
+     *
+     * @param threshold Lowest level that is never dropped.
+     * @return The drop-below-level policy.
+     */
+    public static BackpressurePolicy dropBelow(LogLevel threshold) {
+        Objects.requireNonNull(threshold, "LogLevel cannot be null");
+        return new BackpressurePolicy(Mode.DROP_BELOW_LEVEL, threshold, 1, DEFAULT_SUMMARY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Events below {@code threshold} are sampled one in {@code rate} once the
+     * buffer is three quarters full, and dropped while it is full; events at
+     * or above it wait for space.
+     *
+     * @param rate      Keep one in this many events under pressure.
+     * @param threshold Lowest level that is never sampled.
+     * @return The sampling policy.
+     */
+    public static BackpressurePolicy sample(int rate, LogLevel threshold) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sample rate must be at least 1");
+        }
+        Objects.requireNonNull(threshold, "LogLevel cannot be null");
+        return new BackpressurePolicy(Mode.SAMPLE, threshold, rate, DEFAULT_SUMMARY_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Returns a copy of this policy with a different drop summary interval.
+     *
+     * @param millis Minimum time between two summary lines, in milliseconds.
+     * @return The adjusted policy.
+     */
+    public BackpressurePolicy withSummaryInterval(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Summary interval must be positive");
+        }
+        return new BackpressurePolicy(mode, threshold, sampleRate, millis);
+    }
+
+    /**
+     * Returns the selected strategy.
+     *
+     * @return The mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the lowest level that is never dropped or sampled.
+     *
+     * @return The threshold level.
+     */
+    public LogLevel getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns N for one-in-N sampling.
+     *
+     * @return The sample rate.
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Returns the minimum time between two drop summary lines.
+     *
+     * @return The interval in milliseconds.
+     */
+    public long getSummaryIntervalMillis() {
+        return summaryIntervalMillis;
+    }
+}
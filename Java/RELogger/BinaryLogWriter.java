@@ -0,0 +1,423 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: BinaryLogWriter.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Compact binary log output. Every distinct combination of level, call site
+ * and message template is described once in an inline dictionary; each
+ * record then only carries the dictionary ID, a timestamp delta, a thread ID
+ * and the raw argument values. Text is produced offline by RELoggerDecode.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Encoder of log records into the binary format read by {@link RELoggerDecode}.
+ * <p>
+ * The file starts with {@link #MAGIC} and {@link #VERSION}, followed by
+ * records. Each record begins with an unsigned LEB128 header: even values
+ * {@code 4 * id + 2 * hasFields} are events of dictionary entry {@code id},
+ * odd values {@code 2 * type + 1} are control records of the given
+ * {@code RECORD_} type. Signed integers are zigzag encoded; strings are a
+ * length varint of {@code bytes + 1} (0 for null) followed by UTF-8.
+ * <pre>
+ * entry:  id, level ordinal, flags, file, line, function, template
+ * thread: id, name
+ * key:    id, name
+ * reset:  (no payload) forget all entries, threads and keys
+ * event:  timestamp delta (micros), thread id,
+ *         message             if the entry has no template,
+ *         count, {kind, value} otherwise,
+ *         count, {key id, kind, value} if it has fields
+ * </pre>
+ * Version 1 files have no fields and no key records, and their event
+ * headers are {@code 2 * id}.
+ * Like the other writers it is not synchronized; every call is made while
+ * holding the logger's lock.
+ */
+final class BinaryLogWriter {
+
+    /** File signature, {@code "RELB"}. */
+    static final byte[] MAGIC = {'R', 'E', 'L', 'B'};
+
+    /** Version of the format written. */
+    static final byte VERSION = 2;
+
+    // Control record types
+    static final int RECORD_ENTRY = 0;
+    static final int RECORD_THREAD = 1;
+    static final int RECORD_RESET = 2;
+    static final int RECORD_KEY = 3;
+
+    /** Entry flag: the location is a {@link LogSite}. */
+    static final int FLAG_SITE = 1;
+
+    // Argument kinds
+    static final byte ARG_NULL = 0;
+    static final byte ARG_LONG = 1;
+    static final byte ARG_DOUBLE = 2;
+    static final byte ARG_FLOAT = 3;
+    static final byte ARG_FALSE = 4;
+    static final byte ARG_TRUE = 5;
+    static final byte ARG_CHAR = 6;
+    static final byte ARG_STRING = 7;
+
+    /** Dictionary size at which it is reset, bounding memory for dynamic templates. */
+    private static final int MAX_ENTRIES = 1 << 16;
+
+    /** Strings shorter than this many chars have a one-byte length prefix. */
+    private static final int SHORT_STRING_CHARS = 42;
+
+    /** Number of hash buckets; a power of two. */
+    private static final int BUCKETS = 4096;
+
+    /** Batched output file. */
+    private final GroupCommitWriter out;
+
+    /** Scratch buffer holding the records of one event. */
+    private final LogBuffer record = new LogBuffer();
+
+    /** Dictionary entries by hash bucket. */
+    private final Entry[] entries = new Entry[BUCKETS];
+
+    /** Number of defined entries, which is also the next entry ID. */
+    private int entryCount;
+
+    /** IDs of the defined thread names. */
+    private final Map<String, Integer> threads = new HashMap<>();
+
+    /** IDs of the defined field keys. */
+    private final Map<String, Integer> keys = new HashMap<>();
+
+    /** Thread name of the previous event, compared by identity. */
+    private String lastThreadName;
+
+    /** ID of {@link #lastThreadName}. */
+    private int lastThreadId;
+
+    /** Timestamp of the previous event, in epoch microseconds. */
+    private long lastTimestampMicros;
+
+    /**
+     * A dictionary entry: everything about a record that is fixed at its call site.
+     */
+    private static final class Entry {
+        final LogLevel level;
+        final LogSite site;
+        final String file;
+        final int line;
+        final String function;
+        final String template;
+        final int hash;
+        final int id;
+        final Entry next;
+
+        Entry(LogLevel level, LogSite site, String file, int line, String function, String template,
+              int hash, int id, Entry next) {
+            this.level = level;
+            this.site = site;
+            this.file = file;
+            this.line = line;
+            this.function = function;
+            this.template = template;
+            this.hash = hash;
+            this.id = id;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Creates (or truncates) a binary log file and writes its header.
+     *
+     * @param path   The path of the file.
+     * @param policy When pending output is written to the file.
+     * @param lock   Lock that guards every call to this writer.
+     * @throws IOException If the file cannot be opened.
+     */
+    BinaryLogWriter(String path, FlushPolicy policy, Object lock) throws IOException {
+        this.out = new GroupCommitWriter(path, policy, lock, new byte[0]);
+        record.append(MAGIC).append(VERSION);
+        out.write(LogLevel.TRACE, System.currentTimeMillis(), record.array(), 0, record.length());
+        record.reset();
+    }
+
+    /**
+     * Encodes one record, preceded by the dictionary entries it introduces.
+     *
+     * @param event The record to write.
+     */
+    void write(LogEvent event) {
+        LogSite site = event.site;
+        String file = site != null ? site.getFileName() : event.file;
+        int line = site != null ? site.getLineNumber() : event.line;
+        String function = site != null ? site.getMethodName() : event.function;
+        String template = event.args != null ? event.message : null;
+
+        if (entryCount == MAX_ENTRIES || threads.size() == MAX_ENTRIES
+                || keys.size() + event.fieldCount > MAX_ENTRIES) {
+            reset();
+        }
+        Entry entry = lookup(event.level, site, file, line, function, template);
+        int threadId = threadId(event.threadName);
+        for (int i = 0; i < event.fieldCount; i++) {
+            // Key definitions must precede the event that uses them
+            keyId(event.fieldKeys[i]);
+        }
+
+        record.appendVarLong(((long) entry.id << 2) | (event.fieldCount > 0 ? 2 : 0));
+        record.appendVarLong(zigzag(event.timestampMicros - lastTimestampMicros));
+        lastTimestampMicros = event.timestampMicros;
+        record.appendVarLong(threadId);
+        if (template == null) {
+            appendString(event.message);
+        } else {
+            int count = event.argCount;
+            record.appendVarLong(count);
+            for (int i = 0; i < count; i++) {
+                appendArgument(event, i);
+            }
+        }
+        if (event.fieldCount > 0) {
+            record.appendVarLong(event.fieldCount);
+            for (int i = 0; i < event.fieldCount; i++) {
+                record.appendVarLong(keyId(event.fieldKeys[i]));
+                appendValue(event.fieldKinds[i], event.fieldBits[i], event.fieldValues[i]);
+            }
+        }
+        out.write(event.level, event.timestampMicros / 1000, record.array(), 0, record.length());
+        record.reset();
+    }
+
+    /**
+     * Flushes the batch if due.
+     */
+    void endBatch() {
+        out.endBatch();
+    }
+
+    /**
+     * Replaces the flush settings.
+     *
+     * @param policy The new flush policy.
+     */
+    void setPolicy(FlushPolicy policy) {
+        out.setPolicy(policy);
+    }
+
+    /**
+     * Replaces the force settings.
+     *
+     * @param durability The new durability policy.
+     */
+    void setDurability(DurabilityPolicy durability) {
+        out.setDurability(durability);
+    }
+
+    /**
+     * Flushes pending output and closes the file.
+     */
+    void close() {
+        out.close();
+    }
+
+    /**
+     * Finds the entry for a call site, defining it in the record buffer if new.
+     *
+     * @param level    Severity of the record.
+     * @param site     Precomputed call site, or null.
+     * @param file     Source file or class, or null.
+     * @param line     Source line, or -1.
+     * @param function Method name, or null.
+     * @param template Message template, or null for plain messages.
+     * @return The entry.
+     */
+    private Entry lookup(LogLevel level, LogSite site, String file, int line, String function, String template) {
+        int hash = level.getOrdinal();
+        hash = 31 * hash + (site != null ? System.identityHashCode(site) : Objects.hashCode(file));
+        hash = 31 * hash + line;
+        hash = 31 * hash + Objects.hashCode(function);
+        hash = 31 * hash + Objects.hashCode(template);
+        int bucket = (hash ^ (hash >>> 16)) & (BUCKETS - 1);
+        for (Entry e = entries[bucket]; e != null; e = e.next) {
+            if (e.hash == hash && e.level == level && e.site == site && e.line == line
+                    && Objects.equals(e.file, file) && Objects.equals(e.function, function)
+                    && Objects.equals(e.template, template)) {
+                return e;
+            }
+        }
+        Entry entry = new Entry(level, site, file, line, function, template, hash, entryCount++, entries[bucket]);
+        entries[bucket] = entry;
+        record.appendVarLong(((long) RECORD_ENTRY << 1) | 1);
+        record.appendVarLong(entry.id);
+        record.append((byte) level.getOrdinal());
+        record.append((byte) (site != null ? FLAG_SITE : 0));
+        appendString(file);
+        record.appendVarLong(zigzag(line));
+        appendString(function);
+        appendString(template);
+        return entry;
+    }
+
+    /**
+     * Returns the ID of a thread name, defining it in the record buffer if new.
+     *
+     * @param name The thread name.
+     * @return The ID.
+     */
+    private int threadId(String name) {
+        if (name == lastThreadName) {
+            return lastThreadId;
+        }
+        Integer id = threads.get(name);
+        if (id != null) {
+            lastThreadName = name;
+            lastThreadId = id;
+            return id;
+        }
+        int newId = threads.size();
+        threads.put(name, newId);
+        lastThreadName = name;
+        lastThreadId = newId;
+        record.appendVarLong(((long) RECORD_THREAD << 1) | 1);
+        record.appendVarLong(newId);
+        appendString(name);
+        return newId;
+    }
+
+    /**
+     * Returns the ID of a field key, defining it in the record buffer if new.
+     *
+     * @param key The field name.
+     * @return The ID.
+     */
+    private int keyId(String key) {
+        Integer id = keys.get(key);
+        if (id != null) {
+            return id;
+        }
+        int newId = keys.size();
+        keys.put(key, newId);
+        record.appendVarLong(((long) RECORD_KEY << 1) | 1);
+        record.appendVarLong(newId);
+        appendString(key);
+        return newId;
+    }
+
+    /**
+     * Forgets every entry, thread and key, and tells the decoder to do the same.
+     */
+    private void reset() {
+        Arrays.fill(entries, null);
+        entryCount = 0;
+        threads.clear();
+        keys.clear();
+        lastThreadName = null;
+        record.appendVarLong(((long) RECORD_RESET << 1) | 1);
+    }
+
+    /**
+     * Appends one template argument. Primitives, boxed or not, keep their
+     * binary value; other objects are rendered to text as the text layouts would.
+     *
+     * @param event The record.
+     * @param index Index of the argument.
+     */
+    private void appendArgument(LogEvent event, int index) {
+        byte kind = event.argKind(index);
+        if (kind == LogEvent.KIND_OBJECT) {
+            appendObject(event.args[index]);
+        } else {
+            appendValue(kind, event.primitiveArg(index), null);
+        }
+    }
+
+    /**
+     * Appends a value stored as a kind plus raw bits or an object, as
+     * template arguments and structured fields are.
+     *
+     * @param kind  One of the {@code LogEvent.KIND_} constants.
+     * @param bits  The primitive value, encoded as for {@link LogEvent#setPrimitive}.
+     * @param value The object value, for {@link LogEvent#KIND_OBJECT}.
+     */
+    private void appendValue(byte kind, long bits, Object value) {
+        switch (kind) {
+            case LogEvent.KIND_LONG -> record.append(ARG_LONG).appendVarLong(zigzag(bits));
+            case LogEvent.KIND_DOUBLE -> record.append(ARG_DOUBLE).appendFixed(bits, 8);
+            case LogEvent.KIND_FLOAT -> record.append(ARG_FLOAT).appendFixed(bits, 4);
+            case LogEvent.KIND_BOOLEAN -> record.append(bits != 0 ? ARG_TRUE : ARG_FALSE);
+            case LogEvent.KIND_CHAR -> record.append(ARG_CHAR).appendVarLong(bits);
+            default -> appendObject(value);
+        }
+    }
+
+    /**
+     * Appends an object argument.
+     *
+     * @param arg The argument, or null.
+     */
+    private void appendObject(Object arg) {
+        if (arg == null) {
+            record.append(ARG_NULL);
+        } else if (arg instanceof CharSequence) {
+            record.append(ARG_STRING);
+            appendString((CharSequence) arg);
+        } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            record.append(ARG_LONG).appendVarLong(zigzag(((Number) arg).longValue()));
+        } else if (arg instanceof Double) {
+            record.append(ARG_DOUBLE).appendFixed(Double.doubleToRawLongBits((Double) arg), 8);
+        } else if (arg instanceof Float) {
+            record.append(ARG_FLOAT).appendFixed(Float.floatToRawIntBits((Float) arg), 4);
+        } else if (arg instanceof Boolean) {
+            record.append((Boolean) arg ? ARG_TRUE : ARG_FALSE);
+        } else if (arg instanceof Character) {
+            record.append(ARG_CHAR).appendVarLong((Character) arg);
+        } else {
+            record.append(ARG_STRING);
+            int start = record.length();
+            MessageFormatter.appendArgument(arg, record);
+            record.insertVarLong(start, record.length() - start + 1L);
+        }
+    }
+
+    /**
+     * Appends a length-prefixed UTF-8 string.
+     *
+     * @param s The string, or null.
+     */
+    private void appendString(CharSequence s) {
+        if (s == null) {
+            record.append((byte) 0);
+            return;
+        }
+        if (s.length() < SHORT_STRING_CHARS) {
+            // At most 3 bytes per char: the prefix fits in one byte, patched after encoding
+            int start = record.length();
+            record.append((byte) 0).appendUtf8(s);
+            record.array()[start] = (byte) (record.length() - start);
+            return;
+        }
+        int start = record.length();
+        record.appendUtf8(s);
+        record.insertVarLong(start, record.length() - start + 1L);
+    }
+
+    /**
+     * Maps signed to unsigned so small magnitudes encode in few bytes.
+     *
+     * @param value The signed value.
+     * @return The zigzag encoding.
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,1044 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: CallSiteRewriter.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Minimal class file rewriter used by RELoggerAgent. It finds invocations of
+ * the logging methods of RELogger and Logger and redirects each one to a
+ * small synthetic bridge method that supplies the constant file name, line
+ * number and method name of the call site, the Java counterpart of
+ * __FILE__, __LINE__ and __func__ in the C/C++ version.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites the logging call sites of one class file.
+ * <p>
+ * Calls of {@code RELogger.log(LogLevel, String, boolean)} are redirected to
+ * a bridge that appends the location to the
+ * {@code log(level, message, DEBUG, file, line, func)} overload. Every other
+ * entry point in {@link #ENTRY_POINTS} is redirected to a bridge that calls
+ * its {@link LogSite} overload with a site created on first use and kept in
+ * a synthetic static field.
+ * <p>
+ * Only the 3-byte invoke instruction of each call site is patched (instance
+ * calls become static calls of a bridge taking the receiver first) and the
+ * bridges and fields are appended as new members, so no existing instruction
+ * moves and branch offsets, exception tables and stack map frames stay
+ * valid. Located bridges are straight-line code; site bridges have a single
+ * branch, described by their own one-entry stack map.
+ */
+final class CallSiteRewriter {
+
+    /** Internal name of the logger class. */
+    static final String LOGGER_CLASS = "RELogger/RELogger";
+
+    /** Internal name of the named logger class. */
+    private static final String NAMED_LOGGER_CLASS = "RELogger/Logger";
+
+    /** Internal name prefix of the library's classes, which are never rewritten. */
+    private static final String PACKAGE_PREFIX = "RELogger/";
+
+    /** Descriptor of {@code log(LogLevel, String, boolean)}. */
+    private static final String LOG_DESCRIPTOR = "(LRELogger/LogLevel;Ljava/lang/String;Z)V";
+
+    /** Descriptor of {@code log(LogLevel, String, boolean, String, int, String)}. */
+    private static final String LOCATED_DESCRIPTOR =
+            "(LRELogger/LogLevel;Ljava/lang/String;ZLjava/lang/String;ILjava/lang/String;)V";
+
+    // Descriptors of the types passed by site bridges
+    private static final String LEVEL_TYPE = "LRELogger/LogLevel;";
+    private static final String SITE_TYPE = "LRELogger/LogSite;";
+    private static final String BUILDER_TYPE = "LRELogger/LogBuilder;";
+
+    /** Descriptor of {@code RELogger.site(String, int, String)}. */
+    private static final String SITE_FACTORY_DESCRIPTOR = "(Ljava/lang/String;ILjava/lang/String;)" + SITE_TYPE;
+
+    /** Parameters following the level in the {@code log} overloads of RELogger and Logger. */
+    private static final String[] LOG_PARAMETERS = {
+            "Ljava/lang/String;Ljava/lang/Object;",
+            "Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;",
+            "Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;Ljava/lang/Object;",
+            "Ljava/lang/String;[Ljava/lang/Object;",
+            "Ljava/lang/String;J",
+            "Ljava/lang/String;D",
+            "Ljava/lang/String;F",
+            "Ljava/lang/String;C",
+            "Ljava/util/function/Supplier;",
+            "Ljava/lang/Object;Ljava/util/function/Function;",
+    };
+
+    /** Builder shortcuts and the level each one stands for. */
+    private static final String[][] LEVEL_SHORTCUTS = {
+            {"atTrace", "TRACE"}, {"atDebug", "DEBUG"}, {"atInfo", "INFO"},
+            {"atWarn", "WARN"}, {"atError", "ERROR"}, {"atFatal", "FATAL"},
+    };
+
+    /** Every rewritten method. */
+    private static final List<EntryPoint> ENTRY_POINTS = buildEntryPoints();
+
+    /** Name prefix of the generated bridge methods. */
+    private static final String BRIDGE_PREFIX = "relogger$bridge$";
+
+    /** Name prefix of the generated fields holding the sites of site bridges. */
+    private static final String SITE_FIELD_PREFIX = "relogger$site$";
+
+    /** Bytes searched for before parsing, to skip unrelated classes cheaply. */
+    private static final byte[] PACKAGE_BYTES = PACKAGE_PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+    // Constant pool tags
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    // Opcodes that need special handling while walking code
+    private static final int OP_INVOKEVIRTUAL = 0xB6;
+    private static final int OP_INVOKESTATIC = 0xB8;
+    private static final int OP_TABLESWITCH = 0xAA;
+    private static final int OP_LOOKUPSWITCH = 0xAB;
+    private static final int OP_WIDE = 0xC4;
+    private static final int OP_IINC = 0x84;
+
+    /** Instruction lengths for fixed-size opcodes; 0 marks variable or unused opcodes. */
+    private static final byte[] OPCODE_LENGTHS = buildOpcodeLengths();
+
+    // Access flags
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int BRIDGE_ACCESS = 0x0002 | 0x0008 | 0x1000; // private static synthetic
+
+    /** Offset of the first argument load in a site bridge, just after the site is created. */
+    private static final int SITE_BRIDGE_PROLOGUE = 24;
+
+    /** The class file being rewritten; patched in place. */
+    private final byte[] bytes;
+
+    /** Constant pool tags, indexed by constant pool index. */
+    private int[] tags;
+
+    /** Offset of each constant's data (just after its tag). */
+    private int[] offsets;
+
+    /** Number of call sites rewritten by {@link #rewrite()}. */
+    private int rewrittenCount;
+
+    /**
+     * Creates a rewriter for one class file.
+     *
+     * @param classFile The class file bytes; not modified.
+     */
+    CallSiteRewriter(byte[] classFile) {
+        this.bytes = classFile.clone();
+    }
+
+    /**
+     * Returns the number of call sites rewritten by the last {@link #rewrite()}.
+     *
+     * @return The call-site count.
+     */
+    int rewrittenCount() {
+        return rewrittenCount;
+    }
+
+    /**
+     * Rewrites every matching call site of the class.
+     *
+     * @return The new class file, or null if the class has nothing to rewrite.
+     */
+    byte[] rewrite() {
+        if (indexOf(bytes, PACKAGE_BYTES) < 0) {
+            return null;
+        }
+
+        // Constant pool
+        int cpCount = u2(8);
+        tags = new int[cpCount];
+        offsets = new int[cpCount];
+        int pos = 10;
+        for (int i = 1; i < cpCount; i++) {
+            int tag = bytes[pos] & 0xFF;
+            tags[i] = tag;
+            offsets[i] = pos + 1;
+            pos += 1 + constantSize(tag, pos + 1);
+            if (tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) {
+                i++;
+            }
+        }
+        int cpEnd = pos;
+
+        int accessFlags = u2(pos);
+        int thisClass = u2(pos + 2);
+        if ((accessFlags & ACC_INTERFACE) != 0 || utf8StartsWith(u2(offsets[thisClass]), PACKAGE_PREFIX)) {
+            return null;
+        }
+
+        Map<Integer, EntryPoint> targets = new HashMap<>();
+        for (int i = 1; i < cpCount; i++) {
+            if (tags[i] == CONSTANT_METHODREF) {
+                EntryPoint entryPoint = entryPoint(i);
+                if (entryPoint != null) {
+                    targets.put(i, entryPoint);
+                }
+            }
+        }
+        if (targets.isEmpty()) {
+            return null;
+        }
+
+        // Skip interfaces and fields
+        pos += 6;
+        pos += 2 + 2 * u2(pos);
+        int fieldsCountPos = pos;
+        int fieldCount = u2(pos);
+        pos += 2;
+        for (int i = 0; i < fieldCount; i++) {
+            pos = skipMember(pos);
+        }
+
+        // Methods: collect the call sites
+        int methodsCountPos = pos;
+        int methodCount = u2(pos);
+        pos += 2;
+        List<Site> sites = new ArrayList<>();
+        for (int i = 0; i < methodCount; i++) {
+            pos = scanMethod(pos, targets, sites);
+        }
+        int methodsEnd = pos;
+        if (sites.isEmpty()) {
+            return null;
+        }
+
+        // Class attributes: find the source file name
+        int sourceFile = 0;
+        int attributeCount = u2(pos);
+        int attributePos = pos + 2;
+        for (int i = 0; i < attributeCount; i++) {
+            if (utf8Equals(u2(attributePos), "SourceFile")) {
+                sourceFile = u2(attributePos + 6);
+            }
+            attributePos += 6 + u4(attributePos + 2);
+        }
+
+        return emit(cpCount, cpEnd, thisClass, sourceFile, fieldsCountPos, fieldCount,
+                methodsCountPos, methodCount, methodsEnd, sites);
+    }
+
+    /** A rewritten method and the overload its bridges call. */
+    private static final class EntryPoint {
+        /** Internal name of the declaring class. */
+        final String owner;
+        /** Method name. */
+        final String name;
+        /** Method descriptor. */
+        final String descriptor;
+        /** Whether the method is static; otherwise the receiver becomes the bridge's first parameter. */
+        final boolean isStatic;
+        /** Whether the bridge appends file, line and method instead of passing a {@link LogSite}. */
+        final boolean located;
+        /** Name of the overload called by the bridge. */
+        final String targetName;
+        /** Descriptor of the overload called by the bridge. */
+        final String targetDescriptor;
+        /** Name of the LogLevel constant passed after the site, or null. */
+        final String level;
+
+        /**
+         * @param owner            Internal name of the declaring class.
+         * @param name             Method name.
+         * @param descriptor       Method descriptor.
+         * @param isStatic         Whether the method is static.
+         * @param located          Whether the bridge appends the location.
+         * @param targetName       Name of the overload called by the bridge.
+         * @param targetDescriptor Descriptor of the overload called by the bridge.
+         * @param level            Name of the LogLevel constant passed after the site, or null.
+         */
+        EntryPoint(String owner, String name, String descriptor, boolean isStatic, boolean located,
+                   String targetName, String targetDescriptor, String level) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.isStatic = isStatic;
+            this.located = located;
+            this.targetName = targetName;
+            this.targetDescriptor = targetDescriptor;
+            this.level = level;
+        }
+
+        /**
+         * Returns the bridge's descriptor: the method's own, with the
+         * receiver prepended for instance methods.
+         *
+         * @return The bridge descriptor.
+         */
+        String bridgeDescriptor() {
+            return isStatic ? descriptor : "(L" + owner + ";" + descriptor.substring(1);
+        }
+    }
+
+    /**
+     * Builds the table of rewritten methods: the flag overload of
+     * {@code RELogger.log}, and the {@code log}, {@code at} and
+     * {@code at<Level>} methods of RELogger and Logger, each redirected to
+     * the overload taking a {@link LogSite} first.
+     *
+     * @return The entry points.
+     */
+    private static List<EntryPoint> buildEntryPoints() {
+        List<EntryPoint> entries = new ArrayList<>();
+        entries.add(new EntryPoint(LOGGER_CLASS, "log", LOG_DESCRIPTOR, true, true,
+                "log", LOCATED_DESCRIPTOR, null));
+        for (String owner : new String[] {LOGGER_CLASS, NAMED_LOGGER_CLASS}) {
+            boolean isStatic = owner.equals(LOGGER_CLASS);
+            List<String> parameters = new ArrayList<>(List.of(LOG_PARAMETERS));
+            if (!isStatic) {
+                // The static plain-message method is the flag overload above
+                parameters.add(0, "Ljava/lang/String;");
+            }
+            for (String parameter : parameters) {
+                String descriptor = "(" + LEVEL_TYPE + parameter + ")V";
+                entries.add(new EntryPoint(owner, "log", descriptor, isStatic, false,
+                        "log", "(" + SITE_TYPE + descriptor.substring(1), null));
+            }
+            String atDescriptor = "(" + LEVEL_TYPE + ")" + BUILDER_TYPE;
+            String atSiteDescriptor = "(" + SITE_TYPE + LEVEL_TYPE + ")" + BUILDER_TYPE;
+            entries.add(new EntryPoint(owner, "at", atDescriptor, isStatic, false, "at", atSiteDescriptor, null));
+            for (String[] shortcut : LEVEL_SHORTCUTS) {
+                entries.add(new EntryPoint(owner, shortcut[0], "()" + BUILDER_TYPE, isStatic, false,
+                        "at", atSiteDescriptor, shortcut[1]));
+            }
+        }
+        return entries;
+    }
+
+    /** A matching invocation found in the code of a method. */
+    private static final class Site {
+        /** Offset of the invoke operand in the class file. */
+        final int operandOffset;
+        /** Source line of the invocation, or 0 if unknown. */
+        final int line;
+        /** Constant pool index of the enclosing method's name. */
+        final int methodName;
+        /** Constant pool index of the invoked Methodref. */
+        final int methodRef;
+        /** The invoked entry point. */
+        final EntryPoint entryPoint;
+
+        /**
+         * @param operandOffset Offset of the invoke operand.
+         * @param line          Source line of the invocation.
+         * @param methodName    Constant pool index of the enclosing method's name.
+         * @param methodRef     Constant pool index of the invoked Methodref.
+         * @param entryPoint    The invoked entry point.
+         */
+        Site(int operandOffset, int line, int methodName, int methodRef, EntryPoint entryPoint) {
+            this.operandOffset = operandOffset;
+            this.line = line;
+            this.methodName = methodName;
+            this.methodRef = methodRef;
+            this.entryPoint = entryPoint;
+        }
+    }
+
+    /**
+     * Scans one method_info structure for call sites.
+     *
+     * @param pos     Offset of the method_info.
+     * @param targets Rewritten Methodrefs by constant pool index.
+     * @param sites   Receives the call sites found.
+     * @return Offset just past the method_info.
+     */
+    private int scanMethod(int pos, Map<Integer, EntryPoint> targets, List<Site> sites) {
+        int name = u2(pos + 2);
+        int attributeCount = u2(pos + 6);
+        pos += 8;
+        for (int a = 0; a < attributeCount; a++) {
+            int length = u4(pos + 2);
+            if (utf8Equals(u2(pos), "Code")) {
+                scanCode(pos + 6, targets, name, sites);
+            }
+            pos += 6 + length;
+        }
+        return pos;
+    }
+
+    /**
+     * Walks the instructions of a Code attribute.
+     *
+     * @param pos        Offset of the Code attribute's info.
+     * @param targets    Rewritten Methodrefs by constant pool index.
+     * @param methodName Constant pool index of the method's name.
+     * @param sites      Receives the call sites found.
+     */
+    private void scanCode(int pos, Map<Integer, EntryPoint> targets, int methodName, List<Site> sites) {
+        int codeLength = u4(pos + 4);
+        int codeStart = pos + 8;
+        int codeEnd = codeStart + codeLength;
+
+        List<int[]> found = new ArrayList<>();
+        int pc = 0;
+        while (pc < codeLength) {
+            int opcode = bytes[codeStart + pc] & 0xFF;
+            if (opcode == OP_INVOKESTATIC || opcode == OP_INVOKEVIRTUAL) {
+                EntryPoint entryPoint = targets.get(u2(codeStart + pc + 1));
+                if (entryPoint != null && entryPoint.isStatic == (opcode == OP_INVOKESTATIC)) {
+                    found.add(new int[] {codeStart + pc + 1, pc});
+                }
+            }
+            pc += instructionLength(codeStart, pc, opcode);
+        }
+        if (found.isEmpty()) {
+            return;
+        }
+
+        // Line numbers from every LineNumberTable of this Code attribute
+        int exceptionCount = u2(codeEnd);
+        int attributePos = codeEnd + 2 + 8 * exceptionCount;
+        int attributeCount = u2(attributePos);
+        attributePos += 2;
+        List<int[]> lines = new ArrayList<>();
+        for (int a = 0; a < attributeCount; a++) {
+            if (utf8Equals(u2(attributePos), "LineNumberTable")) {
+                int entries = u2(attributePos + 6);
+                for (int e = 0; e < entries; e++) {
+                    int entry = attributePos + 8 + 4 * e;
+                    lines.add(new int[] {u2(entry), u2(entry + 2)});
+                }
+            }
+            attributePos += 6 + u4(attributePos + 2);
+        }
+
+        for (int[] call : found) {
+            int line = 0;
+            int bestPc = -1;
+            for (int[] entry : lines) {
+                if (entry[0] <= call[1] && entry[0] > bestPc) {
+                    bestPc = entry[0];
+                    line = entry[1];
+                }
+            }
+            int methodRef = u2(call[0]);
+            sites.add(new Site(call[0], line, methodName, methodRef, targets.get(methodRef)));
+        }
+    }
+
+    /**
+     * Builds the rewritten class file: the original constant pool followed by
+     * the new constants, the original fields followed by the site fields, the
+     * original methods with patched calls followed by the bridges, and
+     * everything else unchanged.
+     *
+     * @param cpCount         Original constant pool count.
+     * @param cpEnd           Offset just past the original constant pool.
+     * @param thisClass       Constant pool index of this class.
+     * @param sourceFile      Constant pool index of the source file name, or 0.
+     * @param fieldsCountPos  Offset of fields_count.
+     * @param fieldCount      Original number of fields.
+     * @param methodsCountPos Offset of methods_count, just past the last field.
+     * @param methodCount     Original number of methods.
+     * @param methodsEnd      Offset just past the last method.
+     * @param sites           The call sites to rewrite.
+     * @return The new class file, or null if the constant pool would overflow.
+     */
+    private byte[] emit(int cpCount, int cpEnd, int thisClass, int sourceFile, int fieldsCountPos, int fieldCount,
+                        int methodsCountPos, int methodCount, int methodsEnd, List<Site> sites) {
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        DataOutputStream cp = new DataOutputStream(pool);
+        int[] next = {cpCount};
+        try {
+            // Shared constants: the file name and the attribute names
+            int fileUtf8 = sourceFile != 0 ? sourceFile : addUtf8(cp, next, "Unknown");
+            int fileString = addIndex(cp, next, CONSTANT_STRING, fileUtf8);
+            int codeName = addUtf8(cp, next, "Code");
+            int stackMapName = 0;
+            int siteClass = 0;
+            int siteType = 0;
+            int siteFactory = 0;
+            for (Site site : sites) {
+                if (!site.entryPoint.located) {
+                    stackMapName = addUtf8(cp, next, "StackMapTable");
+                    siteClass = addIndex(cp, next, CONSTANT_CLASS, addUtf8(cp, next, "RELogger/LogSite"));
+                    siteType = addUtf8(cp, next, SITE_TYPE);
+                    int loggerClass = addIndex(cp, next, CONSTANT_CLASS, addUtf8(cp, next, LOGGER_CLASS));
+                    int factoryNameAndType = addRef(cp, next, CONSTANT_NAME_AND_TYPE,
+                            addUtf8(cp, next, "site"), addUtf8(cp, next, SITE_FACTORY_DESCRIPTOR));
+                    siteFactory = addRef(cp, next, CONSTANT_METHODREF, loggerClass, factoryNameAndType);
+                    break;
+                }
+            }
+
+            // One bridge per distinct (method, line, entry point); one site per (method, line)
+            ByteArrayOutputStream fields = new ByteArrayOutputStream();
+            DataOutputStream fieldOut = new DataOutputStream(fields);
+            ByteArrayOutputStream methods = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(methods);
+            Map<Long, Integer> bridges = new HashMap<>();
+            Map<Long, Integer> siteFields = new HashMap<>();
+            Map<Integer, Integer> methodStrings = new HashMap<>();
+            Map<Integer, Integer> bridgeDescriptors = new HashMap<>();
+            Map<Integer, Integer> targetRefs = new HashMap<>();
+            Map<String, Integer> levelRefs = new HashMap<>();
+            for (Site site : sites) {
+                EntryPoint entryPoint = site.entryPoint;
+                long location = ((long) site.methodName << 16) | site.line;
+                long key = (location << 16) | site.methodRef;
+                Integer bridgeRef = bridges.get(key);
+                if (bridgeRef == null) {
+                    Integer bridgeDescriptor = bridgeDescriptors.get(site.methodRef);
+                    if (bridgeDescriptor == null) {
+                        bridgeDescriptor = entryPoint.isStatic
+                                ? u2(offsets[u2(offsets[site.methodRef] + 2)] + 2)
+                                : addUtf8(cp, next, entryPoint.bridgeDescriptor());
+                        bridgeDescriptors.put(site.methodRef, bridgeDescriptor);
+                    }
+                    Integer targetRef = targetRefs.get(site.methodRef);
+                    if (targetRef == null) {
+                        int targetNameAndType = addRef(cp, next, CONSTANT_NAME_AND_TYPE,
+                                addUtf8(cp, next, entryPoint.targetName),
+                                addUtf8(cp, next, entryPoint.targetDescriptor));
+                        targetRef = addRef(cp, next, CONSTANT_METHODREF, u2(offsets[site.methodRef]),
+                                targetNameAndType);
+                        targetRefs.put(site.methodRef, targetRef);
+                    }
+                    Integer methodString = methodStrings.get(site.methodName);
+                    if (methodString == null) {
+                        methodString = addIndex(cp, next, CONSTANT_STRING, site.methodName);
+                        methodStrings.put(site.methodName, methodString);
+                    }
+                    int lineConstant = site.line > Short.MAX_VALUE ? addInteger(cp, next, site.line) : 0;
+
+                    int bridgeName = addUtf8(cp, next, BRIDGE_PREFIX + bridges.size());
+                    int bridgeNameAndType = addRef(cp, next, CONSTANT_NAME_AND_TYPE, bridgeName, bridgeDescriptor);
+                    bridgeRef = addRef(cp, next, CONSTANT_METHODREF, thisClass, bridgeNameAndType);
+                    if (entryPoint.located) {
+                        writeBridge(out, bridgeName, bridgeDescriptor, codeName, fileString,
+                                site.line, lineConstant, methodString, targetRef);
+                    } else {
+                        Integer siteField = siteFields.get(location);
+                        if (siteField == null) {
+                            int fieldName = addUtf8(cp, next, SITE_FIELD_PREFIX + siteFields.size());
+                            int fieldNameAndType = addRef(cp, next, CONSTANT_NAME_AND_TYPE, fieldName, siteType);
+                            siteField = addRef(cp, next, CONSTANT_FIELDREF, thisClass, fieldNameAndType);
+                            fieldOut.writeShort(BRIDGE_ACCESS);
+                            fieldOut.writeShort(fieldName);
+                            fieldOut.writeShort(siteType);
+                            fieldOut.writeShort(0);   // attributes_count
+                            siteFields.put(location, siteField);
+                        }
+                        int levelRef = 0;
+                        if (entryPoint.level != null) {
+                            Integer ref = levelRefs.get(entryPoint.level);
+                            if (ref == null) {
+                                int levelClass = addIndex(cp, next, CONSTANT_CLASS,
+                                        addUtf8(cp, next, "RELogger/LogLevel"));
+                                int levelNameAndType = addRef(cp, next, CONSTANT_NAME_AND_TYPE,
+                                        addUtf8(cp, next, entryPoint.level), addUtf8(cp, next, LEVEL_TYPE));
+                                ref = addRef(cp, next, CONSTANT_FIELDREF, levelClass, levelNameAndType);
+                                levelRefs.put(entryPoint.level, ref);
+                            }
+                            levelRef = ref;
+                        }
+                        writeSiteBridge(out, entryPoint, bridgeName, bridgeDescriptor, codeName, stackMapName,
+                                siteClass, siteField, siteFactory, fileString, site.line, lineConstant,
+                                methodString, levelRef, targetRef);
+                    }
+                    bridges.put(key, bridgeRef);
+                }
+                // Instance calls pass the receiver to the static bridge
+                bytes[site.operandOffset - 1] = (byte) OP_INVOKESTATIC;
+                bytes[site.operandOffset] = (byte) (bridgeRef >>> 8);
+                bytes[site.operandOffset + 1] = (byte) (int) bridgeRef;
+            }
+            if (next[0] > 0xFFFF) {
+                return null;
+            }
+
+            ByteArrayOutputStream result = new ByteArrayOutputStream(
+                    bytes.length + pool.size() + fields.size() + methods.size());
+            DataOutputStream file = new DataOutputStream(result);
+            file.write(bytes, 0, 8);
+            file.writeShort(next[0]);
+            file.write(bytes, 10, cpEnd - 10);
+            pool.writeTo(file);
+            file.write(bytes, cpEnd, fieldsCountPos - cpEnd);
+            file.writeShort(fieldCount + siteFields.size());
+            file.write(bytes, fieldsCountPos + 2, methodsCountPos - fieldsCountPos - 2);
+            fields.writeTo(file);
+            file.writeShort(methodCount + bridges.size());
+            file.write(bytes, methodsCountPos + 2, methodsEnd - methodsCountPos - 2);
+            methods.writeTo(file);
+            file.write(bytes, methodsEnd, bytes.length - methodsEnd);
+            rewrittenCount = sites.size();
+            return result.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a bridge method that forwards its arguments to
+     * {@code log(level, message, debug, FILE, LINE, METHOD)}.
+     *
+     * @param out          Receives the method_info.
+     * @param name         Constant pool index of the bridge name.
+     * @param descriptor   Constant pool index of the bridge descriptor.
+     * @param codeName     Constant pool index of "Code".
+     * @param fileString   Constant pool index of the file name String.
+     * @param line         Source line of the call site.
+     * @param lineConstant Constant pool index of an Integer holding the line, or 0 to use sipush.
+     * @param methodString Constant pool index of the method name String.
+     * @param locatedRef   Constant pool index of the located overload.
+     * @throws IOException Never; required by DataOutputStream.
+     */
+    private static void writeBridge(DataOutputStream out, int name, int descriptor, int codeName,
+                                    int fileString, int line, int lineConstant, int methodString,
+                                    int locatedRef) throws IOException {
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        code.writeByte(0x2A);                 // aload_0
+        code.writeByte(0x2B);                 // aload_1
+        code.writeByte(0x1C);                 // iload_2
+        writeLocation(code, fileString, line, lineConstant, methodString);
+        code.writeByte(OP_INVOKESTATIC);      // invokestatic located log
+        code.writeShort(locatedRef);
+        code.writeByte(0xB1);                 // return
+
+        out.writeShort(BRIDGE_ACCESS);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);                    // attributes_count
+        out.writeShort(codeName);
+        out.writeInt(2 + 2 + 4 + codeBytes.size() + 2 + 2);
+        out.writeShort(6);                    // max_stack
+        out.writeShort(3);                    // max_locals
+        out.writeInt(codeBytes.size());
+        codeBytes.writeTo(out);
+        out.writeShort(0);                    // exception_table_length
+        out.writeShort(0);                    // attributes_count
+    }
+
+    /**
+     * Writes a bridge method that creates the call site's {@link LogSite}
+     * on first use and forwards its arguments to the entry point's site
+     * overload:
+     * <pre>
+     *     LogSite site = SITE;
+     *     if (site == null) { site = SITE = RELogger.site(FILE, LINE, METHOD); }
+     *     [receiver.]target(site, [LEVEL,] arguments...);
+     * </pre>
+     * Racing threads may each create a site; they are equal and immutable.
+     *
+     * @param out          Receives the method_info.
+     * @param entryPoint   The rewritten entry point.
+     * @param name         Constant pool index of the bridge name.
+     * @param descriptor   Constant pool index of the bridge descriptor.
+     * @param codeName     Constant pool index of "Code".
+     * @param stackMapName Constant pool index of "StackMapTable".
+     * @param siteClass    Constant pool index of the LogSite class.
+     * @param siteField    Constant pool index of the Fieldref holding the site.
+     * @param siteFactory  Constant pool index of {@code RELogger.site(String, int, String)}.
+     * @param fileString   Constant pool index of the file name String.
+     * @param line         Source line of the call site.
+     * @param lineConstant Constant pool index of an Integer holding the line, or 0 to use sipush.
+     * @param methodString Constant pool index of the method name String.
+     * @param levelRef     Constant pool index of the Fieldref of the level passed after the site, or 0.
+     * @param targetRef    Constant pool index of the site overload.
+     * @throws IOException Never; required by DataOutputStream.
+     */
+    private static void writeSiteBridge(DataOutputStream out, EntryPoint entryPoint, int name, int descriptor,
+                                        int codeName, int stackMapName, int siteClass, int siteField,
+                                        int siteFactory, int fileString, int line, int lineConstant,
+                                        int methodString, int levelRef, int targetRef) throws IOException {
+        List<Character> parameters = parameterKinds(entryPoint.bridgeDescriptor());
+        int siteSlot = 0;
+        for (char kind : parameters) {
+            siteSlot += kind == 'J' || kind == 'D' ? 2 : 1;
+        }
+        if (siteSlot > 0xFF) {
+            throw new IllegalArgumentException("Too many parameters for " + entryPoint.name);
+        }
+
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        code.writeByte(0xB2);                 // getstatic site
+        code.writeShort(siteField);
+        code.writeByte(0x59);                 // dup
+        code.writeByte(0xC7);                 // ifnonnull prologue end
+        code.writeShort(SITE_BRIDGE_PROLOGUE - 4);
+        code.writeByte(0x57);                 // pop
+        writeLocation(code, fileString, line, lineConstant, methodString);
+        code.writeByte(OP_INVOKESTATIC);      // invokestatic RELogger.site
+        code.writeShort(siteFactory);
+        code.writeByte(0x59);                 // dup
+        code.writeByte(0xB3);                 // putstatic site
+        code.writeShort(siteField);
+        code.writeByte(0x3A);                 // astore site (the stack map frame's offset)
+        code.writeByte(siteSlot);
+
+        int slot = 0;
+        int first = 0;
+        if (!entryPoint.isStatic) {
+            code.writeByte(0x2A);             // aload_0 receiver
+            slot = 1;
+            first = 1;
+        }
+        code.writeByte(0x19);                 // aload site
+        code.writeByte(siteSlot);
+        int stack = slot + 1;
+        if (levelRef != 0) {
+            code.writeByte(0xB2);             // getstatic level
+            code.writeShort(levelRef);
+            stack++;
+        }
+        for (int i = first; i < parameters.size(); i++) {
+            char kind = parameters.get(i);
+            code.writeByte(loadOpcode(kind));
+            code.writeByte(slot);
+            int size = kind == 'J' || kind == 'D' ? 2 : 1;
+            slot += size;
+            stack += size;
+        }
+        code.writeByte(entryPoint.isStatic ? OP_INVOKESTATIC : OP_INVOKEVIRTUAL);
+        code.writeShort(targetRef);
+        code.writeByte(entryPoint.descriptor.endsWith(")V") ? 0xB1 : 0xB0);   // return or areturn
+
+        int stackMapLength = 2 + 1 + 3;
+        out.writeShort(BRIDGE_ACCESS);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);                    // attributes_count
+        out.writeShort(codeName);
+        out.writeInt(2 + 2 + 4 + codeBytes.size() + 2 + 2 + 6 + stackMapLength);
+        out.writeShort(Math.max(3, stack));   // max_stack
+        out.writeShort(siteSlot + 1);         // max_locals
+        out.writeInt(codeBytes.size());
+        codeBytes.writeTo(out);
+        out.writeShort(0);                    // exception_table_length
+        out.writeShort(1);                    // attributes_count
+        out.writeShort(stackMapName);
+        out.writeInt(stackMapLength);
+        out.writeShort(1);                    // number_of_entries
+        out.writeByte(64 + SITE_BRIDGE_PROLOGUE);   // same_locals_1_stack_item_frame
+        out.writeByte(CONSTANT_CLASS);        // ITEM_Object
+        out.writeShort(siteClass);
+    }
+
+    /**
+     * Writes the instructions pushing the file name, line and method name.
+     *
+     * @param code         Receives the instructions.
+     * @param fileString   Constant pool index of the file name String.
+     * @param line         Source line of the call site.
+     * @param lineConstant Constant pool index of an Integer holding the line, or 0 to use sipush.
+     * @param methodString Constant pool index of the method name String.
+     * @throws IOException Never; required by DataOutputStream.
+     */
+    private static void writeLocation(DataOutputStream code, int fileString, int line, int lineConstant,
+                                      int methodString) throws IOException {
+        code.writeByte(0x13);                 // ldc_w file
+        code.writeShort(fileString);
+        if (lineConstant != 0) {
+            code.writeByte(0x13);             // ldc_w line
+            code.writeShort(lineConstant);
+        } else {
+            code.writeByte(0x11);             // sipush line
+            code.writeShort(line);
+        }
+        code.writeByte(0x13);                 // ldc_w method
+        code.writeShort(methodString);
+    }
+
+    /**
+     * Returns the computational kind of each parameter of a method
+     * descriptor: {@code I}, {@code J}, {@code F}, {@code D}, or {@code L}
+     * for references.
+     *
+     * @param descriptor The method descriptor.
+     * @return The kinds in parameter order.
+     */
+    private static List<Character> parameterKinds(String descriptor) {
+        List<Character> kinds = new ArrayList<>();
+        int i = 1;
+        while (descriptor.charAt(i) != ')') {
+            char c = descriptor.charAt(i);
+            if (c == '[' || c == 'L') {
+                while (descriptor.charAt(i) == '[') {
+                    i++;
+                }
+                if (descriptor.charAt(i) == 'L') {
+                    i = descriptor.indexOf(';', i);
+                }
+                kinds.add('L');
+            } else {
+                kinds.add(c == 'Z' || c == 'B' || c == 'C' || c == 'S' ? 'I' : c);
+            }
+            i++;
+        }
+        return kinds;
+    }
+
+    /**
+     * Returns the load instruction taking a local variable index for a parameter kind.
+     *
+     * @param kind One of the kinds returned by {@link #parameterKinds}.
+     * @return The opcode of iload, lload, fload, dload or aload.
+     */
+    private static int loadOpcode(char kind) {
+        return switch (kind) {
+            case 'I' -> 0x15;
+            case 'J' -> 0x16;
+            case 'F' -> 0x17;
+            case 'D' -> 0x18;
+            default -> 0x19;
+        };
+    }
+
+    /**
+     * Returns the entry point a Methodref refers to.
+     *
+     * @param index Constant pool index of a Methodref.
+     * @return The entry point, or null if calls of the method are not rewritten.
+     */
+    private EntryPoint entryPoint(int index) {
+        int classIndex = u2(offsets[index]);
+        int nameAndType = u2(offsets[index] + 2);
+        for (EntryPoint entryPoint : ENTRY_POINTS) {
+            if (utf8Equals(u2(offsets[nameAndType]), entryPoint.name)
+                    && utf8Equals(u2(offsets[nameAndType] + 2), entryPoint.descriptor)
+                    && utf8Equals(u2(offsets[classIndex]), entryPoint.owner)) {
+                return entryPoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether a CONSTANT_Utf8 entry starts with an ASCII prefix.
+     *
+     * @param index  Constant pool index.
+     * @param prefix The ASCII prefix.
+     * @return {@code true} if the entry starts with the prefix.
+     */
+    private boolean utf8StartsWith(int index, String prefix) {
+        if (index <= 0 || index >= tags.length || tags[index] != CONSTANT_UTF8) {
+            return false;
+        }
+        int offset = offsets[index];
+        if (u2(offset) < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (bytes[offset + 2 + i] != (byte) prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares a CONSTANT_Utf8 entry with an ASCII string without decoding it.
+     *
+     * @param index    Constant pool index.
+     * @param expected The ASCII text to compare with.
+     * @return {@code true} if the entry holds exactly that text.
+     */
+    private boolean utf8Equals(int index, String expected) {
+        if (index <= 0 || index >= tags.length || tags[index] != CONSTANT_UTF8) {
+            return false;
+        }
+        int offset = offsets[index];
+        int length = u2(offset);
+        if (length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[offset + 2 + i] != (byte) expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the size of a constant's data following its tag.
+     *
+     * @param tag The constant pool tag.
+     * @param pos Offset of the constant's data.
+     * @return The data size in bytes.
+     */
+    private int constantSize(int tag, int pos) {
+        return switch (tag) {
+            case CONSTANT_UTF8 -> 2 + u2(pos);
+            case CONSTANT_CLASS, CONSTANT_STRING, 16, 19, 20 -> 2;      // Class, String, MethodType, Module, Package
+            case 15 -> 3;                                                // MethodHandle
+            case CONSTANT_INTEGER, 4, 9, CONSTANT_METHODREF, 11,
+                 CONSTANT_NAME_AND_TYPE, 17, 18 -> 4;                    // 4-byte and reference constants
+            case CONSTANT_LONG, CONSTANT_DOUBLE -> 8;
+            default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+        };
+    }
+
+    /**
+     * Skips a field_info or method_info structure.
+     *
+     * @param pos Offset of the structure.
+     * @return Offset just past the structure.
+     */
+    private int skipMember(int pos) {
+        int attributeCount = u2(pos + 6);
+        pos += 8;
+        for (int a = 0; a < attributeCount; a++) {
+            pos += 6 + u4(pos + 2);
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the length of the instruction at {@code pc}.
+     *
+     * @param codeStart Offset of the method's first instruction.
+     * @param pc        Offset of the instruction within the code.
+     * @param opcode    The instruction's opcode.
+     * @return The instruction length in bytes.
+     */
+    private int instructionLength(int codeStart, int pc, int opcode) {
+        switch (opcode) {
+            case OP_TABLESWITCH: {
+                int aligned = (pc + 4) & ~3;
+                int low = u4(codeStart + aligned + 4);
+                int high = u4(codeStart + aligned + 8);
+                return aligned - pc + 12 + 4 * (high - low + 1);
+            }
+            case OP_LOOKUPSWITCH: {
+                int aligned = (pc + 4) & ~3;
+                int pairs = u4(codeStart + aligned + 4);
+                return aligned - pc + 8 + 8 * pairs;
+            }
+            case OP_WIDE:
+                return (bytes[codeStart + pc + 1] & 0xFF) == OP_IINC ? 6 : 4;
+            default:
+                int length = OPCODE_LENGTHS[opcode];
+                if (length == 0) {
+                    throw new IllegalArgumentException("Unknown opcode " + opcode);
+                }
+                return length;
+        }
+    }
+
+    /**
+     * Builds the fixed instruction length table from the JVM specification.
+     *
+     * @return Lengths indexed by opcode.
+     */
+    private static byte[] buildOpcodeLengths() {
+        byte[] lengths = new byte[256];
+        fill(lengths, 0x00, 0xC9, 1);
+        lengths[0x10] = 2;                    // bipush
+        lengths[0x11] = 3;                    // sipush
+        lengths[0x12] = 2;                    // ldc
+        fill(lengths, 0x13, 0x14, 3);         // ldc_w, ldc2_w
+        fill(lengths, 0x15, 0x19, 2);         // xload
+        fill(lengths, 0x36, 0x3A, 2);         // xstore
+        lengths[0x84] = 3;                    // iinc
+        fill(lengths, 0x99, 0xA8, 3);         // if*, goto, jsr
+        lengths[0xA9] = 2;                    // ret
+        lengths[OP_TABLESWITCH] = 0;
+        lengths[OP_LOOKUPSWITCH] = 0;
+        fill(lengths, 0xB2, 0xB8, 3);         // field access, invokevirtual/special/static
+        fill(lengths, 0xB9, 0xBA, 5);         // invokeinterface, invokedynamic
+        lengths[0xBB] = 3;                    // new
+        lengths[0xBC] = 2;                    // newarray
+        lengths[0xBD] = 3;                    // anewarray
+        fill(lengths, 0xC0, 0xC1, 3);         // checkcast, instanceof
+        lengths[OP_WIDE] = 0;
+        lengths[0xC5] = 4;                    // multianewarray
+        fill(lengths, 0xC6, 0xC7, 3);         // ifnull, ifnonnull
+        fill(lengths, 0xC8, 0xC9, 5);         // goto_w, jsr_w
+        return lengths;
+    }
+
+    /** Sets {@code table[from..to]} to {@code value}. */
+    private static void fill(byte[] table, int from, int to, int value) {
+        for (int i = from; i <= to; i++) {
+            table[i] = (byte) value;
+        }
+    }
+
+    /** Appends a CONSTANT_Utf8 and returns its index. */
+    private static int addUtf8(DataOutputStream cp, int[] next, String value) throws IOException {
+        cp.writeByte(CONSTANT_UTF8);
+        cp.writeUTF(value);
+        return next[0]++;
+    }
+
+    /** Appends a constant holding one index and returns its index. */
+    private static int addIndex(DataOutputStream cp, int[] next, int tag, int index) throws IOException {
+        cp.writeByte(tag);
+        cp.writeShort(index);
+        return next[0]++;
+    }
+
+    /** Appends a constant holding two indices and returns its index. */
+    private static int addRef(DataOutputStream cp, int[] next, int tag, int first, int second) throws IOException {
+        cp.writeByte(tag);
+        cp.writeShort(first);
+        cp.writeShort(second);
+        return next[0]++;
+    }
+
+    /** Appends a CONSTANT_Integer and returns its index. */
+    private static int addInteger(DataOutputStream cp, int[] next, int value) throws IOException {
+        cp.writeByte(CONSTANT_INTEGER);
+        cp.writeInt(value);
+        return next[0]++;
+    }
+
+    /** Reads an unsigned big-endian 16-bit value. */
+    private int u2(int pos) {
+        return ((bytes[pos] & 0xFF) << 8) | (bytes[pos + 1] & 0xFF);
+    }
+
+    /** Reads a big-endian 32-bit value. */
+    private int u4(int pos) {
+        return (u2(pos) << 16) | u2(pos + 2);
+    }
+
+    /**
+     * Finds the first occurrence of {@code pattern} in {@code data}.
+     *
+     * @param data    The bytes to search.
+     * @param pattern The bytes to find.
+     * @return The offset of the match, or -1.
+     */
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
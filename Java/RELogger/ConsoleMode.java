@@ -0,0 +1,24 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: ConsoleMode.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Defines how console lines reach standard output and standard error:
+ * through the System streams, or directly to the file descriptors with
+ * the logger's own buffering.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+/**
+ * Enumeration of console output modes, set with {@link RELogger#setConsoleMode(ConsoleMode)}.
+ */
+public enum ConsoleMode {
+    SYSTEM_STREAMS,  // System.out/System.err; honours System.setOut, one flush per line
+    DIRECT,          // File descriptors with batched writes; waits for a slow console
+    NON_BLOCKING     // File descriptors written by a background thread; drops lines when it falls behind
+}
@@ -0,0 +1,128 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: ConsoleSink.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Colored console output. Lines below ERROR go to stdout and ERROR/FATAL to
+ * stderr. The colored variant of a line is derived from the shared plain
+ * bytes by adding a pre-encoded ANSI prefix and reset suffix; when the
+ * console is not a terminal, empty prefixes and a bare line separator are
+ * used instead, chosen once when the sink is created.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Default console sink writing through {@code System.out} and {@code System.err}.
+ */
+final class ConsoleSink implements LogSink {
+
+    /** ANSI color prefix per level, indexed by ordinal. */
+    private static final byte[][] COLOR_PREFIXES = new byte[LogLevel.values().length][];
+
+    /** Empty prefix per level, for plain output. */
+    private static final byte[][] PLAIN_PREFIXES = new byte[LogLevel.values().length][0];
+
+    /** ANSI reset sequence followed by the line separator. */
+    private static final byte[] RESET_SUFFIX =
+            (RELogger.ANSI_RESET + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+
+    /** The line separator alone, for plain output. */
+    private static final byte[] PLAIN_SUFFIX = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (LogLevel level : LogLevel.values()) {
+            COLOR_PREFIXES[level.getOrdinal()] =
+                    RELogger.levelToAnsiColor(level).getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /** Prefix per level, colored or plain. */
+    private final byte[][] prefixes;
+
+    /** Bytes after every line, colored or plain. */
+    private final byte[] suffix;
+
+    /** Scratch buffer assembling prefix, line and suffix for one write. */
+    private final LogBuffer scratch = new LogBuffer();
+
+    /**
+     * @param color Whether lines are wrapped in ANSI color sequences.
+     */
+    ConsoleSink(boolean color) {
+        this.prefixes = prefixes(color);
+        this.suffix = suffix(color);
+    }
+
+    /**
+     * Decides whether console output should be colored: not if the
+     * {@code NO_COLOR} environment variable is set or {@code TERM} is
+     * {@code dumb}; always if {@code FORCE_COLOR} is set; otherwise only if
+     * the JVM is attached to a terminal, so redirected output and container
+     * log pipes get plain lines.
+     *
+     * @return {@code true} to color console output.
+     */
+    static boolean detectColor() {
+        if (isSet(System.getenv("NO_COLOR"))) {
+            return false;
+        }
+        String force = System.getenv("FORCE_COLOR");
+        if (isSet(force) && !force.equals("0")) {
+            return true;
+        }
+        if ("dumb".equals(System.getenv("TERM"))) {
+            return false;
+        }
+        return System.console() != null;
+    }
+
+    /**
+     * Returns the prefix per level, indexed by ordinal.
+     *
+     * @param color Whether output is colored.
+     * @return The ANSI color prefixes, or empty ones.
+     */
+    static byte[][] prefixes(boolean color) {
+        return color ? COLOR_PREFIXES : PLAIN_PREFIXES;
+    }
+
+    /**
+     * Returns the bytes written after every line.
+     *
+     * @param color Whether output is colored.
+     * @return The reset sequence and line separator, or the line separator alone.
+     */
+    static byte[] suffix(boolean color) {
+        return color ? RESET_SUFFIX : PLAIN_SUFFIX;
+    }
+
+    /**
+     * Returns whether an environment variable is present and not empty.
+     *
+     * @param value The variable's value, or null.
+     * @return {@code true} if it is set.
+     */
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    @Override
+    public void write(LogLevel level, long timestampMillis, byte[] line, int offset, int length) {
+        // Select output stream: stdout for info, stderr for errors
+        PrintStream out = (level.getOrdinal() >= LogLevel.ERROR.getOrdinal()) ? System.err : System.out;
+
+        scratch.reset();
+        scratch.append(prefixes[level.getOrdinal()])
+                .append(line, offset, length)
+                .append(suffix);
+        out.write(scratch.array(), 0, scratch.length());
+    }
+}
@@ -0,0 +1,304 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: DirectConsoleSink.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Colored console output written straight to the stdout and stderr file
+ * descriptors, bypassing PrintStream with its own lock and per-line flush.
+ * Lines are collected in a buffer per stream and written once per batch,
+ * either by the logging thread or, in non-blocking mode, by a background
+ * thread that drops lines while the console cannot keep up.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Console sink for {@link ConsoleMode#DIRECT} and {@link ConsoleMode#NON_BLOCKING}.
+ * Like {@link ConsoleSink}, lines below ERROR go to stdout and ERROR/FATAL
+ * to stderr. In direct mode the relative order of stdout and stderr lines is
+ * kept; in non-blocking mode each stream keeps its own order.
+ */
+final class DirectConsoleSink implements LogSink {
+
+    /** Buffer size per stream in direct mode. */
+    private static final int DIRECT_BUFFER_SIZE = 64 * 1024;
+
+    /** Bytes per stream that may wait for the console in non-blocking mode. */
+    private static final int QUEUE_CAPACITY = 1024 * 1024;
+
+    /** How long {@link #close()} waits for queued output in non-blocking mode. */
+    private static final long DRAIN_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * One output stream and its pending bytes.
+     */
+    private static final class Output {
+        final FileOutputStream stream;
+        byte[] pending;
+        int pendingLength;
+        byte[] spare;
+
+        Output(FileDescriptor fd, int capacity, boolean doubleBuffered) {
+            this.stream = new FileOutputStream(fd);
+            this.pending = new byte[capacity];
+            this.spare = doubleBuffered ? new byte[capacity] : null;
+        }
+    }
+
+    /** Standard output. */
+    private final Output out;
+
+    /** Standard error. */
+    private final Output err;
+
+    /** Whether lines are handed to a background thread. */
+    private final boolean nonBlocking;
+
+    /** Prefix per level, colored or plain. */
+    private final byte[][] prefixes;
+
+    /** Bytes after every line, colored or plain. */
+    private final byte[] suffix;
+
+    /** Stream of the previous line in direct mode, flushed before switching streams. */
+    private Output last;
+
+    /** Lines dropped since the last summary; guarded by this sink's monitor. */
+    private long dropped;
+
+    /** Set while the background thread writes outside the monitor. */
+    private boolean writing;
+
+    /** Set by {@link #stop()}; the background thread exits once drained. */
+    private boolean stopped;
+
+    /** Set after the first write failure so it is reported only once. */
+    private boolean failed;
+
+    /**
+     * Creates the sink, starting the background thread in non-blocking mode.
+     *
+     * @param nonBlocking Whether to write on a background thread and drop
+     *                    lines instead of waiting for a slow console.
+     * @param color       Whether lines are wrapped in ANSI color sequences.
+     */
+    DirectConsoleSink(boolean nonBlocking, boolean color) {
+        this.prefixes = ConsoleSink.prefixes(color);
+        this.suffix = ConsoleSink.suffix(color);
+        int capacity = nonBlocking ? QUEUE_CAPACITY : DIRECT_BUFFER_SIZE;
+        this.out = new Output(FileDescriptor.out, capacity, nonBlocking);
+        this.err = new Output(FileDescriptor.err, capacity, nonBlocking);
+        this.nonBlocking = nonBlocking;
+        if (nonBlocking) {
+            Thread writer = new Thread(this::runWriter, "RELogger-Console");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    @Override
+    public void write(LogLevel level, long timestampMillis, byte[] line, int offset, int length) {
+        Output target = level.getOrdinal() >= LogLevel.ERROR.getOrdinal() ? err : out;
+        byte[] prefix = prefixes[level.getOrdinal()];
+        int size = prefix.length + length + suffix.length;
+        if (nonBlocking) {
+            enqueue(target, prefix, line, offset, length, suffix, size);
+            return;
+        }
+        if (last != target && last != null) {
+            flush(last);
+        }
+        last = target;
+        if (target.pendingLength + size > target.pending.length) {
+            flush(target);
+            if (size > target.pending.length) {
+                writeFully(target, prefix, 0, prefix.length);
+                writeFully(target, line, offset, length);
+                writeFully(target, suffix, 0, suffix.length);
+                return;
+            }
+        }
+        append(target, prefix, line, offset, length, suffix);
+    }
+
+    /**
+     * Writes the pending lines of both streams in direct mode.
+     */
+    @Override
+    public void endBatch() {
+        if (!nonBlocking) {
+            flush(out);
+            flush(err);
+        }
+    }
+
+    /**
+     * Writes everything pending. In non-blocking mode this waits a bounded
+     * time for the background thread. The sink stays usable, as the console
+     * outlives the logger's files.
+     */
+    @Override
+    public void close() {
+        if (!nonBlocking) {
+            endBatch();
+            return;
+        }
+        synchronized (this) {
+            long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+            while (writing || out.pendingLength > 0 || err.pendingLength > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drains the sink and ends the background thread, when the sink is replaced.
+     */
+    void stop() {
+        close();
+        if (nonBlocking) {
+            synchronized (this) {
+                stopped = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Queues a line for the background thread, or counts it as dropped if
+     * the stream's queue is full.
+     */
+    private void enqueue(Output target, byte[] prefix, byte[] line, int offset, int length, byte[] suffix,
+                         int size) {
+        synchronized (this) {
+            if (target.pendingLength + size > target.pending.length) {
+                dropped++;
+                return;
+            }
+            boolean idle = out.pendingLength == 0 && err.pendingLength == 0;
+            append(target, prefix, line, offset, length, suffix);
+            if (idle) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Background loop: takes both queues, writes them without holding the
+     * monitor and reports dropped lines on stderr.
+     */
+    private void runWriter() {
+        while (true) {
+            int outLength;
+            int errLength;
+            long lost;
+            synchronized (this) {
+                writing = false;
+                notifyAll();
+                while (out.pendingLength == 0 && err.pendingLength == 0 && dropped == 0) {
+                    if (stopped) {
+                        return;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                outLength = swap(out);
+                errLength = swap(err);
+                lost = dropped;
+                dropped = 0;
+                writing = true;
+            }
+            writeFully(out, out.spare, 0, outLength);
+            writeFully(err, err.spare, 0, errLength);
+            if (lost > 0) {
+                byte[] summary = ("[LOGGER WARNING] Dropped " + lost + " console lines; the console was too slow"
+                        + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                writeFully(err, summary, 0, summary.length);
+            }
+        }
+    }
+
+    /**
+     * Exchanges a stream's queue with its spare buffer.
+     *
+     * @param output The stream.
+     * @return Number of queued bytes, now at the start of {@code spare}.
+     */
+    private static int swap(Output output) {
+        byte[] queued = output.pending;
+        int length = output.pendingLength;
+        output.pending = output.spare;
+        output.pendingLength = 0;
+        output.spare = queued;
+        return length;
+    }
+
+    /**
+     * Copies a colored line into a stream's pending buffer, which must have room.
+     */
+    private static void append(Output target, byte[] prefix, byte[] line, int offset, int length,
+                               byte[] suffix) {
+        int at = target.pendingLength;
+        System.arraycopy(prefix, 0, target.pending, at, prefix.length);
+        at += prefix.length;
+        System.arraycopy(line, offset, target.pending, at, length);
+        at += length;
+        System.arraycopy(suffix, 0, target.pending, at, suffix.length);
+        target.pendingLength = at + suffix.length;
+    }
+
+    /**
+     * Writes a stream's pending bytes in direct mode.
+     *
+     * @param output The stream.
+     */
+    private void flush(Output output) {
+        if (output.pendingLength > 0) {
+            writeFully(output, output.pending, 0, output.pendingLength);
+            output.pendingLength = 0;
+        }
+    }
+
+    /**
+     * Writes bytes to a file descriptor, reporting the first failure.
+     *
+     * @param output The stream.
+     * @param bytes  The bytes.
+     * @param offset First byte to write.
+     * @param length Number of bytes.
+     */
+    private void writeFully(Output output, byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        try {
+            output.stream.write(bytes, offset, length);
+        } catch (IOException e) {
+            if (!failed) {
+                failed = true;
+                System.err.println("[LOGGER ERROR] Failed to write console output: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: DurabilityPolicy.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Controls when log file output that was handed to the operating system is
+ * forced to the storage device. A FlushPolicy decides when lines leave the
+ * process; a DurabilityPolicy decides when they survive a power loss.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Objects;
+
+/**
+ * Force settings for the log files.
+ * <pre>
+ *     DurabilityPolicy.osBuffered()                        // Never force; the default
+ *     DurabilityPolicy.periodic(1000, 4 * 1024 * 1024)     // Force in the background
+ *     DurabilityPolicy.periodic(0, 4 * 1024 * 1024)        // Only every 4 MB
+ *     DurabilityPolicy.periodic(1000, 0).withSyncLevel(LogLevel.FATAL)
+ * </pre>
+ * Periodic forcing runs on a background thread and never blocks logging
+ * threads. Lines at or above the sync level are flushed and forced before
+ * the logging call returns; in asynchronous mode the writer thread does this
+ * before it moves on to the next batch.
+ * <p>
+ * {@link RELogger#setDurabilityPolicy(DurabilityPolicy)} sets the policy of
+ * every log file that was not given its own, e.g. with
+ * {@link LogFileOptions#withDurability(DurabilityPolicy)}. Sinks added with
+ * {@link RELogger#addSink(LogSink)} other than {@link MappedFileSink} manage
+ * their own durability.
+ */
+public final class DurabilityPolicy {
+
+    /** Leaves write-back to the operating system. */
+    private static final DurabilityPolicy OS_BUFFERED = new DurabilityPolicy(0, 0, null);
+
+    /** Force once the oldest unforced output is this old; 0 disables the timer. */
+    private final long maxDelayMillis;
+
+    /** Force once this many bytes are unforced; 0 disables the byte bound. */
+    private final long maxBytes;
+
+    /** Lines at or above this level are forced synchronously; null for none. */
+    private final LogLevel syncLevel;
+
+    private DurabilityPolicy(long maxDelayMillis, long maxBytes, LogLevel syncLevel) {
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxBytes = maxBytes;
+        this.syncLevel = syncLevel;
+    }
+
+    /**
+     * Never forces output; it reaches the device whenever the operating
+     * system writes it back. This is the default.
+     *
+     * @return The OS-buffered policy.
+     */
+    public static DurabilityPolicy osBuffered() {
+        return OS_BUFFERED;
+    }
+
+    /**
+     * Forces output on a background thread at least every
+     * {@code maxDelayMillis}, and earlier once {@code maxBytes} are unforced.
+     * Either bound may be 0 to force by the other one only.
+     *
+     * @param maxDelayMillis Longest time output stays unforced; 0 for no time bound.
+     * @param maxBytes       Unforced bytes that trigger a force; 0 for no byte bound.
+     * @return The periodic policy.
+     */
+    public static DurabilityPolicy periodic(long maxDelayMillis, long maxBytes) {
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Force delay cannot be negative");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Force byte bound cannot be negative");
+        }
+        if (maxDelayMillis == 0 && maxBytes == 0) {
+            throw new IllegalArgumentException("Force delay or byte bound must be positive");
+        }
+        return new DurabilityPolicy(maxDelayMillis, maxBytes, null);
+    }
+
+    /**
+     * Returns a policy that additionally forces lines at or above a level
+     * synchronously, e.g. {@link LogLevel#FATAL} for audit-grade records.
+     *
+     * @param level The lowest level forced synchronously.
+     * @return The combined policy.
+     */
+    public DurabilityPolicy withSyncLevel(LogLevel level) {
+        return new DurabilityPolicy(maxDelayMillis, maxBytes,
+                Objects.requireNonNull(level, "LogLevel cannot be null"));
+    }
+
+    /**
+     * Returns whether output is forced by a background thread.
+     *
+     * @return {@code true} if there is a time or byte bound.
+     */
+    boolean isPeriodic() {
+        return maxDelayMillis > 0 || maxBytes > 0;
+    }
+
+    /**
+     * Returns the longest time output stays unforced.
+     *
+     * @return The delay in milliseconds, or 0 if nothing is forced periodically.
+     */
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /**
+     * Returns the number of unforced bytes that triggers an early force.
+     *
+     * @return The byte bound, or 0 if there is none.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the lowest level forced synchronously.
+     *
+     * @return The level, or null if no line is forced synchronously.
+     */
+    public LogLevel getSyncLevel() {
+        return syncLevel;
+    }
+}
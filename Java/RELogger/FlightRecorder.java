@@ -0,0 +1,159 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: FlightRecorder.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Always-on ring of the most recent formatted records, kept off-heap in
+ * fixed-size slots. Records below the logger's level can be kept here
+ * without reaching any sink, and the ring is appended to a crash file on
+ * FATAL, on an uncaught exception or on demand.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Ring of the last records. Each slot holds a 4-byte length followed by up
+ * to {@link #SLOT_SIZE}{@code - 4} bytes of the line; longer lines are cut
+ * at a character boundary and marked as truncated in dumps. Recording is a
+ * copy into the slot under the recorder's own monitor, independent of the
+ * logger's lock.
+ */
+final class FlightRecorder {
+
+    /** Bytes per slot, including the length. */
+    static final int SLOT_SIZE = 512;
+
+    /** Longest line kept in full. */
+    private static final int MAX_LINE = SLOT_SIZE - 4;
+
+    /** Length flag of a line that was cut to fit its slot. */
+    private static final int TRUNCATED = 1 << 31;
+
+    /** Appended to truncated lines in dumps. */
+    private static final byte[] TRUNCATED_MARK = " [truncated]".getBytes(StandardCharsets.US_ASCII);
+
+    /** Platform line separator, matching the text sinks. */
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /** The slots, off-heap. */
+    private final ByteBuffer slots;
+
+    /** Number of slots. */
+    private final int capacity;
+
+    /** Lowest level recorded. */
+    private final LogLevel level;
+
+    /** File the dumps are appended to. */
+    private final Path crashFile;
+
+    /** Number of records ever recorded; the next one goes to slot {@code count % capacity}. */
+    private long count;
+
+    /**
+     * @param capacity  Number of records kept.
+     * @param level     Lowest level recorded.
+     * @param crashFile File the dumps are appended to.
+     */
+    FlightRecorder(int capacity, LogLevel level, Path crashFile) {
+        this.slots = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, SLOT_SIZE));
+        this.capacity = capacity;
+        this.level = level;
+        this.crashFile = crashFile;
+    }
+
+    /**
+     * Returns the lowest level recorded.
+     *
+     * @return The level.
+     */
+    LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Records one formatted line, overwriting the oldest if the ring is full.
+     *
+     * @param line   Buffer holding the UTF-8 encoded line.
+     * @param offset Offset of the first byte of the line.
+     * @param length Number of bytes in the line.
+     */
+    synchronized void record(byte[] line, int offset, int length) {
+        int kept = length;
+        int flags = 0;
+        if (length > MAX_LINE) {
+            kept = MAX_LINE;
+            while (kept > 0 && (line[offset + kept] & 0xC0) == 0x80) {
+                // Don't split a multi-byte character
+                kept--;
+            }
+            flags = TRUNCATED;
+        }
+        int slot = (int) (count++ % capacity) * SLOT_SIZE;
+        slots.putInt(slot, kept | flags);
+        slots.put(slot + 4, line, offset, kept);
+    }
+
+    /**
+     * Appends the recorded lines, oldest first, to the crash file under a
+     * header naming the reason. Recording continues meanwhile; the ring is
+     * copied first and written without holding the monitor.
+     *
+     * @param reason Why the dump was taken.
+     * @throws IOException If the crash file cannot be written.
+     */
+    void dump(String reason) throws IOException {
+        byte[] snapshot;
+        long first;
+        int records;
+        synchronized (this) {
+            records = (int) Math.min(count, capacity);
+            first = count - records;
+            snapshot = new byte[slots.capacity()];
+            slots.get(0, snapshot);
+        }
+        String header = "--- RELogger flight recorder: " + reason + " at " + Instant.now() + ", "
+                + records + " records ---" + System.lineSeparator();
+        LogBuffer out = new LogBuffer();
+        out.append(header.getBytes(StandardCharsets.UTF_8));
+        for (long i = first; i < first + records; i++) {
+            int slot = (int) (i % capacity) * SLOT_SIZE;
+            int length = ByteBuffer.wrap(snapshot, slot, 4).getInt();
+            out.append(snapshot, slot + 4, length & ~TRUNCATED);
+            if ((length & TRUNCATED) != 0) {
+                out.append(TRUNCATED_MARK);
+            }
+            out.append(LINE_SEPARATOR);
+        }
+        try (OutputStream file = Files.newOutputStream(crashFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            file.write(out.array(), 0, out.length());
+        }
+    }
+
+    /**
+     * Dumps the ring, reporting a failure on stderr instead of throwing.
+     *
+     * @param reason Why the dump was taken.
+     */
+    void dumpQuietly(String reason) {
+        try {
+            dump(reason);
+        } catch (IOException e) {
+            System.err.println("[LOGGER ERROR] Failed to write flight recorder dump: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: FlushPolicy.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Controls when buffered log file output is handed to the operating system.
+ * Lines are coalesced into one write until the batch reaches a size limit,
+ * the oldest pending line reaches an age limit, or a line at or above the
+ * immediate level arrives.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Objects;
+
+/**
+ * Group-commit settings for the log file.
+ * <p>
+ * At most {@link #getMaxBatchBytes()} bytes or {@link #getMaxDelayMillis()}
+ * milliseconds of output can be lost if the process dies, whichever bound is
+ * reached first.
+ */
+public final class FlushPolicy {
+
+    /** Flushes after every line; the behaviour of the original logger. */
+    private static final FlushPolicy EVERY_LINE = new FlushPolicy(0, 0, LogLevel.TRACE);
+
+    /** Flush once this many bytes are pending. */
+    private final int maxBatchBytes;
+
+    /** Flush once the oldest pending line is this old; 0 disables the timer. */
+    private final long maxDelayMillis;
+
+    /** Lines at or above this level are flushed immediately. */
+    private final LogLevel immediateLevel;
+
+    private FlushPolicy(int maxBatchBytes, long maxDelayMillis, LogLevel immediateLevel) {
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxDelayMillis = maxDelayMillis;
+        this.immediateLevel = immediateLevel;
+    }
+
+    /**
+     * Flushes after every line. This is the default.
+     *
+     * @return The flush-every-line policy.
+     */
+    public static FlushPolicy everyLine() {
+        return EVERY_LINE;
+    }
+
+    /**
+     * Coalesces lines into batches that are written with a single system call.
+     *
+     * @param maxBatchBytes  Flush once this many bytes are pending.
+     * @param maxDelayMillis Flush once the oldest pending line is this old.
+     * @param immediateLevel Lines at or above this level are flushed at once, e.g. {@link LogLevel#ERROR}.
+     * @return The batching policy.
+     */
+    public static FlushPolicy batched(int maxBatchBytes, long maxDelayMillis, LogLevel immediateLevel) {
+        if (maxBatchBytes <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("Flush delay must be positive");
+        }
+        Objects.requireNonNull(immediateLevel, "LogLevel cannot be null");
+        return new FlushPolicy(maxBatchBytes, maxDelayMillis, immediateLevel);
+    }
+
+    /**
+     * Returns the number of pending bytes that triggers a flush.
+     *
+     * @return The batch size limit.
+     */
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * Returns the age of the oldest pending line that triggers a flush.
+     *
+     * @return The delay limit in milliseconds, or 0 for flush-every-line.
+     */
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /**
+     * Returns the lowest level that is flushed without batching.
+     *
+     * @return The immediate flush level.
+     */
+    public LogLevel getImmediateLevel() {
+        return immediateLevel;
+    }
+}
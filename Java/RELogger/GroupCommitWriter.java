@@ -0,0 +1,550 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: GroupCommitWriter.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Log file sink that coalesces many lines into a single write system call.
+ * Encoded lines are copied into one direct batch buffer and handed to a
+ * FileChannel opened in append mode according to a FlushPolicy; a line that
+ * does not fit is written together with the pending batch in one gathering
+ * write. A daemon thread enforces the delay bound while the application is idle,
+ * and another forces written output to the device according to a
+ * DurabilityPolicy.
+ * The main log file can be appended to, preallocated and locked against
+ * other processes.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batched writer for the log file.
+ * <p>
+ * The writer is not synchronized itself. Every call must be made while
+ * holding the lock passed to the constructor, which the background flusher
+ * acquires as well.
+ */
+final class GroupCommitWriter implements LogSink {
+
+    /** Platform line separator, matching {@code PrintWriter.println}. */
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /** Smallest batch buffer, used by the flush-every-line policy. */
+    private static final int MIN_BUFFER_SIZE = 64 * 1024;
+
+    /** Source of zero bytes for preallocation; duplicated for every use. */
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(64 * 1024);
+
+    /** The open log file, in append mode unless it is preallocated. */
+    private final FileChannel channel;
+
+    /** Lock against other processes, or null if the file is not exclusive. */
+    private final LogFileLock fileLock;
+
+    /** Size of each preallocated chunk; 0 if the file is not preallocated. */
+    private final long preallocateBytes;
+
+    /** End of the written data, where the next write goes. */
+    private long position;
+
+    /** End of the zero-filled region ahead of {@link #position}. */
+    private long allocatedEnd;
+
+    /** Bytes written after every line; empty for binary records. */
+    private final byte[] separator;
+
+    /** {@link #separator} as a buffer for gathering writes. */
+    private final ByteBuffer separatorBuffer;
+
+    /** Batch, line and separator of a gathering write. */
+    private final ByteBuffer[] gather = new ByteBuffer[3];
+
+    /** Lock guarding this writer, shared with the logger. */
+    private final Object lock;
+
+    /** Current flush settings. */
+    private FlushPolicy policy;
+
+    /** Pending bytes not yet written to the file, from 0 to the position. */
+    private ByteBuffer buffer;
+
+    /** Time the oldest pending line was logged, in epoch milliseconds. */
+    private long oldestPendingMillis;
+
+    /** Set when a line has made the batch due for flushing. */
+    private boolean flushDue;
+
+    /** Background thread enforcing the delay bound, if any. */
+    private Thread flusher;
+
+    /** Current force settings. */
+    private DurabilityPolicy durability = DurabilityPolicy.osBuffered();
+
+    /** Bytes handed to the operating system since the last force. */
+    private long unforcedBytes;
+
+    /** Set when a line at or above the sync level is waiting to be forced. */
+    private boolean syncDue;
+
+    /** Background thread forcing output periodically, if any. */
+    private Thread syncer;
+
+    /** Set once the file is closed. */
+    private boolean closed;
+
+    /** Set after the first I/O failure so it is reported only once. */
+    private boolean failed;
+
+    /**
+     * Opens (and truncates) the log file.
+     *
+     * @param path   The path of the file to log into.
+     * @param policy When pending output is written to the file.
+     * @param lock   Lock that guards every call to this writer.
+     * @throws IOException If the file cannot be opened.
+     */
+    GroupCommitWriter(String path, FlushPolicy policy, Object lock) throws IOException {
+        this(path, policy, lock, LINE_SEPARATOR);
+    }
+
+    /**
+     * Opens (and truncates) an output file whose records are followed by the
+     * given separator.
+     *
+     * @param path      The path of the file to write into.
+     * @param policy    When pending output is written to the file.
+     * @param lock      Lock that guards every call to this writer.
+     * @param separator Bytes appended after every record.
+     * @throws IOException If the file cannot be opened.
+     */
+    GroupCommitWriter(String path, FlushPolicy policy, Object lock, byte[] separator) throws IOException {
+        this(path, policy, lock, separator, LogFileOptions.truncate(), false);
+    }
+
+    /**
+     * Opens the main log file exclusively, locking it against other processes.
+     *
+     * @param path    The path of the file to log into.
+     * @param policy  When pending output is written to the file.
+     * @param lock    Lock that guards every call to this writer.
+     * @param options Whether to append and how far to preallocate.
+     * @throws IOException If the file cannot be opened or is locked.
+     */
+    GroupCommitWriter(String path, FlushPolicy policy, Object lock, LogFileOptions options) throws IOException {
+        this(path, policy, lock, LINE_SEPARATOR, options, true);
+    }
+
+    /**
+     * Opens an output file.
+     *
+     * @param path      The path of the file to write into.
+     * @param policy    When pending output is written to the file.
+     * @param lock      Lock that guards every call to this writer.
+     * @param separator Bytes appended after every record.
+     * @param options   Whether to append and how far to preallocate.
+     * @param exclusive Whether to lock the file against other processes.
+     * @throws IOException If the file cannot be opened or is locked.
+     */
+    private GroupCommitWriter(String path, FlushPolicy policy, Object lock, byte[] separator,
+                              LogFileOptions options, boolean exclusive) throws IOException {
+        Path file = Paths.get(path);
+        this.fileLock = exclusive ? LogFileLock.acquire(file) : null;
+        this.preallocateBytes = options.getPreallocateBytes();
+        FileChannel opened = null;
+        try {
+            position = options.isAppend() ? dataEnd(file) : 0;
+            // A preallocated file uses positional writes, since appending would go behind the zeros
+            opened = preallocateBytes == 0
+                    ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.APPEND)
+                    : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            opened.truncate(position);
+            opened.position(position);
+        } catch (IOException | RuntimeException e) {
+            if (opened != null) {
+                opened.close();
+            }
+            if (fileLock != null) {
+                fileLock.release();
+            }
+            throw e;
+        }
+        this.channel = opened;
+        this.allocatedEnd = position;
+        this.lock = lock;
+        this.separator = separator;
+        this.separatorBuffer = ByteBuffer.wrap(separator);
+        setPolicy(policy);
+        try {
+            ensureAllocated(preallocateBytes);
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+    /**
+     * Replaces the flush settings, flushing pending output first.
+     *
+     * @param policy The new flush policy.
+     */
+    void setPolicy(FlushPolicy policy) {
+        flush();
+        this.policy = policy;
+        int size = Math.max(MIN_BUFFER_SIZE, policy.getMaxBatchBytes());
+        if (buffer == null || buffer.capacity() != size) {
+            buffer = ByteBuffer.allocateDirect(size);
+        }
+        if (policy.getMaxDelayMillis() > 0 && flusher == null) {
+            flusher = new Thread(this::runFlusher, "RELogger-Flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    /**
+     * Replaces the force settings, starting the background forcer if needed.
+     *
+     * @param durability The new durability policy.
+     */
+    void setDurability(DurabilityPolicy durability) {
+        this.durability = durability;
+        if (durability.isPeriodic() && syncer == null) {
+            syncer = new Thread(this::runSyncer, "RELogger-Sync");
+            syncer.setDaemon(true);
+            syncer.start();
+        } else if (syncer != null) {
+            // Picks up the new delay, or exits if periodic forcing was turned off
+            LockSupport.unpark(syncer);
+        }
+    }
+
+    /**
+     * Appends one line to the current batch. Marks the batch due when the
+     * line's level, the batch size or the oldest line's age requires it,
+     * and marks it for a synchronous force at or above the sync level.
+     * A line that does not fit is written at once, behind the pending batch.
+     */
+    @Override
+    public void write(LogLevel level, long timestampMillis, byte[] line, int offset, int length) {
+        LogLevel syncLevel = durability.getSyncLevel();
+        if (syncLevel != null && level.getOrdinal() >= syncLevel.getOrdinal()) {
+            syncDue = true;
+            flushDue = true;
+        }
+        if (buffer.remaining() < length + separator.length) {
+            writeThrough(line, offset, length);
+            return;
+        }
+        if (buffer.position() == 0) {
+            oldestPendingMillis = timestampMillis;
+        }
+        buffer.put(line, offset, length).put(separator);
+
+        if (level.getOrdinal() >= policy.getImmediateLevel().getOrdinal()
+                || buffer.position() >= policy.getMaxBatchBytes()
+                || isOverdue(timestampMillis)) {
+            flushDue = true;
+        }
+    }
+
+    /**
+     * Flushes the batch if a line made it due or its delay bound has passed,
+     * and forces it if it holds a line at or above the sync level.
+     */
+    @Override
+    public void endBatch() {
+        flushIfDue(System.currentTimeMillis());
+        if (syncDue) {
+            force();
+        }
+    }
+
+    /**
+     * Flushes the batch if a line made it due or its delay bound has passed.
+     *
+     * @param nowMillis Current time in epoch milliseconds.
+     */
+    void flushIfDue(long nowMillis) {
+        if (buffer.position() > 0 && (flushDue || isOverdue(nowMillis))) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all pending bytes to the file with one system call.
+     */
+    void flush() {
+        if (buffer != null && buffer.position() > 0) {
+            buffer.flip();
+            try {
+                ensureAllocated(buffer.remaining());
+                while (buffer.hasRemaining()) {
+                    written(channel.write(buffer));
+                }
+            } catch (IOException e) {
+                reportFailure(e);
+            }
+            buffer.clear();
+        }
+        flushDue = false;
+    }
+
+    /**
+     * Writes the pending batch, a line and its separator with one gathering
+     * write, without copying the line into the batch.
+     *
+     * @param line   Buffer holding the line.
+     * @param offset Offset of the first byte of the line.
+     * @param length Number of bytes in the line.
+     */
+    private void writeThrough(byte[] line, int offset, int length) {
+        buffer.flip();
+        gather[0] = buffer;
+        gather[1] = ByteBuffer.wrap(line, offset, length);
+        gather[2] = separatorBuffer;
+        separatorBuffer.rewind();
+        try {
+            long remaining = buffer.remaining() + (long) length + separator.length;
+            ensureAllocated(remaining);
+            while (remaining > 0) {
+                long written = channel.write(gather);
+                written(written);
+                remaining -= written;
+            }
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+        gather[1] = null;
+        buffer.clear();
+        flushDue = false;
+    }
+
+    /**
+     * Flushes pending output, forces it unless the policy leaves that to the
+     * operating system, cuts off preallocated space, closes the file,
+     * releases its lock and stops the background threads.
+     */
+    @Override
+    public void close() {
+        flush();
+        if (durability.isPeriodic() || durability.getSyncLevel() != null) {
+            force();
+        }
+        closed = true;
+        try {
+            if (preallocateBytes > 0) {
+                channel.truncate(position);
+            }
+            channel.close();
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+        if (fileLock != null) {
+            fileLock.release();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+            flusher = null;
+        }
+        if (syncer != null) {
+            // Not interrupted: an interrupt during force() would close the channel
+            LockSupport.unpark(syncer);
+            syncer = null;
+        }
+    }
+
+    /**
+     * Flushes pending output and forces everything written to the device.
+     */
+    private void force() {
+        flush();
+        syncDue = false;
+        try {
+            channel.force(false);
+            unforcedBytes = 0;
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+    /**
+     * Accounts for bytes handed to the operating system, waking the
+     * background forcer once the byte bound is reached.
+     *
+     * @param count Number of bytes written.
+     */
+    private void written(long count) {
+        position += count;
+        unforcedBytes += count;
+        long maxBytes = durability.getMaxBytes();
+        if (maxBytes > 0 && unforcedBytes >= maxBytes && syncer != null) {
+            LockSupport.unpark(syncer);
+        }
+    }
+
+    /**
+     * Background loop that forces written output at least once per delay
+     * bound, or earlier when woken by the byte bound; without a delay bound
+     * it only forces when woken. The force itself runs without the lock, so
+     * logging threads keep writing meanwhile.
+     */
+    private void runSyncer() {
+        while (true) {
+            long delay;
+            boolean due;
+            synchronized (lock) {
+                if (closed || syncer != Thread.currentThread() || !durability.isPeriodic()) {
+                    if (syncer == Thread.currentThread()) {
+                        syncer = null;
+                    }
+                    return;
+                }
+                due = unforcedBytes > 0;
+                unforcedBytes = 0;
+                delay = durability.getMaxDelayMillis();
+            }
+            if (due) {
+                try {
+                    channel.force(false);
+                } catch (ClosedChannelException e) {
+                    return;
+                } catch (IOException e) {
+                    synchronized (lock) {
+                        reportFailure(e);
+                    }
+                }
+            }
+            if (delay > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(delay));
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /**
+     * Zero-fills the next chunk of a preallocated file if a write of the
+     * given size would go past the filled region, so the file system
+     * allocates the blocks in one go and the write does not grow the file.
+     *
+     * @param bytes Size of the coming write.
+     * @throws IOException If the file cannot be extended.
+     */
+    private void ensureAllocated(long bytes) throws IOException {
+        if (preallocateBytes == 0 || position + bytes <= allocatedEnd) {
+            return;
+        }
+        long target = Math.max(allocatedEnd + preallocateBytes, position + bytes);
+        ByteBuffer zeros = ZEROS.duplicate();
+        for (long at = allocatedEnd; at < target; ) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), target - at));
+            at += channel.write(zeros, at);
+        }
+        allocatedEnd = target;
+    }
+
+    /**
+     * Finds the end of the data in a file that may end in preallocated zeros
+     * left by a crash. Text lines never contain zero bytes.
+     *
+     * @param file The file.
+     * @return Offset after the last non-zero byte, or 0 if the file does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long dataEnd(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return dataEnd(channel);
+        }
+    }
+
+    /**
+     * Finds the end of the data in an open file.
+     *
+     * @param channel The file, open for reading.
+     * @return Offset after the last non-zero byte.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long dataEnd(FileChannel channel) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+        long end = channel.size();
+        while (end > 0) {
+            int count = (int) Math.min(chunk.capacity(), end);
+            long start = end - count;
+            chunk.clear().limit(count);
+            while (chunk.hasRemaining() && channel.read(chunk, start + chunk.position()) >= 0) {
+                // Positional reads may return fewer bytes than requested
+            }
+            for (int i = chunk.position() - 1; i >= 0; i--) {
+                if (chunk.get(i) != 0) {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns whether the oldest pending line has exceeded the delay bound.
+     *
+     * @param nowMillis Current time in epoch milliseconds.
+     * @return {@code true} if a timed flush is due.
+     */
+    private boolean isOverdue(long nowMillis) {
+        long maxDelay = policy.getMaxDelayMillis();
+        return maxDelay > 0 && buffer.position() > 0 && nowMillis - oldestPendingMillis >= maxDelay;
+    }
+
+    /**
+     * Background loop that flushes batches whose delay bound passed while no
+     * further lines arrived.
+     */
+    private void runFlusher() {
+        while (true) {
+            long delay;
+            synchronized (lock) {
+                if (closed || policy.getMaxDelayMillis() <= 0) {
+                    flusher = null;
+                    return;
+                }
+                flushIfDue(System.currentTimeMillis());
+                delay = policy.getMaxDelayMillis();
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reports the first write failure on stderr.
+     *
+     * @param e The failure.
+     */
+    private void reportFailure(IOException e) {
+        if (!failed) {
+            failed = true;
+            System.err.println("[LOGGER ERROR] Failed to write log file: " + e.getMessage());
+        }
+    }
+}
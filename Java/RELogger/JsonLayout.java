@@ -0,0 +1,212 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: JsonLayout.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * JSON Lines layout. Every record becomes one JSON object per line with its
+ * timestamp, level, thread, location, message and configured static fields.
+ * Keys are pre-encoded; values are encoded as UTF-8 straight into the line
+ * buffer and escaped on the way, with a single-pass fast path for printable
+ * ASCII. Formatted messages are escaped in place after formatting.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Layout writing one JSON object per record, e.g.
+ * <pre>
+ * {"timestamp":"2026-10-18T17:22:21.123+02:00","level":"INFO","thread":"main",
+ *  "file":"Server.java","line":42,"method":"handle","message":"Request served"}
+ * </pre>
+ * (on one line). {@code file}, {@code line} and {@code method} are omitted
+ * when not captured; under {@link LocationPolicy#CLASS} {@code file} holds
+ * the class name. Structured fields from {@link LogBuilder} follow the
+ * message as top-level keys, then the static fields.
+ */
+public final class JsonLayout extends LogLayout {
+
+    // Pre-encoded keys, including the separators around them
+    private static final byte[] TIMESTAMP_KEY = ascii("{\"timestamp\":\"");
+    private static final byte[] LEVEL_KEY = ascii("\",\"level\":\"");
+    private static final byte[] THREAD_KEY = ascii("\",\"thread\":\"");
+    private static final byte[] FILE_KEY = ascii("\",\"file\":\"");
+    private static final byte[] LINE_KEY = ascii("\",\"line\":");
+    private static final byte[] METHOD_KEY = ascii(",\"method\":\"");
+    private static final byte[] MESSAGE_KEY = ascii(",\"message\":\"");
+    private static final byte[] STRING_END = ascii("\"");
+
+    /** Level names, indexed by ordinal. */
+    private static final byte[][] LEVEL_NAMES = new byte[LogLevel.values().length][];
+
+    static {
+        for (LogLevel level : LogLevel.values()) {
+            LEVEL_NAMES[level.getOrdinal()] = ascii(level.name());
+        }
+    }
+
+    /** Format of the timestamp value. */
+    private final TimestampFormat timestampFormat;
+
+    /** Pre-encoded {@code ,"key":"value"} pairs appended to every record. */
+    private final byte[] staticFields;
+
+    /**
+     * @param timestampFormat Format of the timestamp value.
+     * @param staticFields    Pre-encoded fields appended to every record.
+     */
+    private JsonLayout(TimestampFormat timestampFormat, byte[] staticFields) {
+        this.timestampFormat = timestampFormat;
+        this.staticFields = staticFields;
+    }
+
+    /**
+     * Creates a JSON layout with ISO-8601 timestamps in milliseconds.
+     *
+     * @return The layout.
+     */
+    public static JsonLayout create() {
+        return create(TimestampFormat.iso8601(TimestampPrecision.MILLIS));
+    }
+
+    /**
+     * Creates a JSON layout with the given timestamp format.
+     *
+     * @param timestampFormat Format of the {@code timestamp} value.
+     * @return The layout.
+     */
+    public static JsonLayout create(TimestampFormat timestampFormat) {
+        return new JsonLayout(Objects.requireNonNull(timestampFormat, "TimestampFormat cannot be null"), new byte[0]);
+    }
+
+    /**
+     * Returns a copy of this layout that adds a constant string field, such
+     * as the service name or host, to every record.
+     *
+     * @param key   The field name.
+     * @param value The field value.
+     * @return The new layout.
+     */
+    public JsonLayout withField(String key, String value) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        LogBuffer buffer = new LogBuffer();
+        buffer.append(staticFields).append((byte) ',');
+        appendString(key, buffer);
+        buffer.append((byte) ':');
+        if (value == null) {
+            buffer.appendUtf8(null);
+        } else {
+            appendString(value, buffer);
+        }
+        return new JsonLayout(timestampFormat, buffer.toByteArray());
+    }
+
+    @Override
+    void format(LogEvent event, LogBuffer out) {
+        out.append(TIMESTAMP_KEY);
+        int start = out.length();
+        timestampFormat.render(event.timestampMicros, out);
+        out.escapeJson(start);
+
+        out.append(LEVEL_KEY).append(LEVEL_NAMES[event.level.getOrdinal()]);
+
+        out.append(THREAD_KEY).appendJsonUtf8(event.threadName);
+
+        String file = event.site != null ? event.site.getFileName() : event.file;
+        int line = event.site != null ? event.site.getLineNumber() : event.line;
+        String method = event.site != null ? event.site.getMethodName() : event.function;
+        if (file != null) {
+            out.append(FILE_KEY).appendJsonUtf8(file);
+        }
+        if (line >= 0) {
+            out.append(LINE_KEY).appendLong(line);
+        } else {
+            out.append(STRING_END);
+        }
+        if (method != null) {
+            out.append(METHOD_KEY).appendJsonUtf8(method).append(STRING_END);
+        }
+
+        out.append(MESSAGE_KEY);
+        if (event.args != null) {
+            start = out.length();
+            MessageFormatter.format(event, out);
+            out.escapeJson(start);
+        } else {
+            out.appendJsonUtf8(event.message);
+        }
+        out.append(STRING_END);
+
+        for (int i = 0; i < event.fieldCount; i++) {
+            out.append((byte) ',');
+            appendString(event.fieldKeys[i], out);
+            out.append((byte) ':');
+            appendFieldValue(event, i, out);
+        }
+        out.append(staticFields).append((byte) '}');
+    }
+
+    @Override
+    boolean usesMicroseconds() {
+        return timestampFormat.getPrecision() == TimestampPrecision.MICROS;
+    }
+
+    /**
+     * Appends a structured field's value: numbers and booleans as JSON
+     * literals, non-finite numbers and everything else as strings.
+     *
+     * @param event The record being formatted.
+     * @param index Index of the field.
+     * @param out   The buffer to append to.
+     */
+    private static void appendFieldValue(LogEvent event, int index, LogBuffer out) {
+        byte kind = event.fieldKinds[index];
+        long bits = event.fieldBits[index];
+        Object value = event.fieldValues[index];
+        boolean literal = switch (kind) {
+            case LogEvent.KIND_LONG, LogEvent.KIND_BOOLEAN -> true;
+            case LogEvent.KIND_DOUBLE -> Double.isFinite(Double.longBitsToDouble(bits));
+            case LogEvent.KIND_FLOAT -> Float.isFinite(Float.intBitsToFloat((int) bits));
+            case LogEvent.KIND_CHAR -> false;
+            default -> value == null || value instanceof Boolean || value instanceof Long
+                    || value instanceof Integer || value instanceof Short || value instanceof Byte
+                    || (value instanceof Double && Double.isFinite((Double) value))
+                    || (value instanceof Float && Float.isFinite((Float) value));
+        };
+        if (literal) {
+            MessageFormatter.appendValue(kind, bits, value, out);
+            return;
+        }
+        out.append((byte) '"');
+        int start = out.length();
+        MessageFormatter.appendValue(kind, bits, value, out);
+        out.escapeJson(start);
+        out.append((byte) '"');
+    }
+
+    /**
+     * Appends a quoted, escaped JSON string.
+     *
+     * @param value The string.
+     * @param out   The buffer to append to.
+     */
+    private static void appendString(String value, LogBuffer out) {
+        out.append((byte) '"').appendJsonUtf8(value).append((byte) '"');
+    }
+
+    /**
+     * Encodes a constant as ASCII.
+     *
+     * @param text The text.
+     * @return The bytes.
+     */
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LocationPolicy.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Defines how much call-site information is captured for a log message.
+ * Locating the caller requires a stack walk, so high-volume levels can
+ * trade location detail for speed.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+/**
+ * Enumeration of call-site capture modes, configured per {@link LogLevel}.
+ */
+public enum LocationPolicy {
+    NONE,   // No stack walk; the line carries no location
+    CLASS,  // Walk to the caller and record only its class name
+    FULL    // Record file name, line number and method name
+}
@@ -0,0 +1,544 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogBuffer.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Reusable, growable byte buffer that log lines are encoded into. Strings are
+ * encoded to UTF-8 and numbers rendered to ASCII digits directly into the
+ * backing array, so formatting a line allocates nothing once the buffer has
+ * grown to its working size.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte buffer with append operations for the pieces of a log line.
+ * Not thread-safe; each formatting thread owns its own instance.
+ */
+final class LogBuffer {
+
+    /** Initial capacity, large enough for typical lines. */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /** Bytes of the text {@code "null"}. */
+    private static final byte[] NULL_BYTES = {'n', 'u', 'l', 'l'};
+
+    /** Bytes of the text {@code "NaN"}. */
+    private static final byte[] NAN_BYTES = {'N', 'a', 'N'};
+
+    /** Bytes of the text {@code "Infinity"}. */
+    private static final byte[] INFINITY_BYTES = {'I', 'n', 'f', 'i', 'n', 'i', 't', 'y'};
+
+    /** Powers of ten that are exact as doubles, indexed by exponent. */
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Largest integer up to which every long is exactly representable as a double. */
+    private static final double MAX_EXACT_LONG = 0x1p53;
+
+    /** Letter of the two-character JSON escape per control character, or 0 for {@code \\u00XX}. */
+    private static final byte[] SHORT_JSON_ESCAPES = new byte[0x20];
+
+    static {
+        SHORT_JSON_ESCAPES['\b'] = 'b';
+        SHORT_JSON_ESCAPES['\t'] = 't';
+        SHORT_JSON_ESCAPES['\n'] = 'n';
+        SHORT_JSON_ESCAPES['\f'] = 'f';
+        SHORT_JSON_ESCAPES['\r'] = 'r';
+    }
+
+    /** Lower-case hexadecimal digits. */
+    private static final byte[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    /** Digits of {@link Long#MIN_VALUE}, which cannot be negated. */
+    private static final byte[] LONG_MIN_BYTES = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    /** Backing array; replaced by a larger one when full. */
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+    /** Number of valid bytes. */
+    private int length;
+
+    /**
+     * Returns the backing array. Only the first {@link #length()} bytes are valid.
+     *
+     * @return The backing array.
+     */
+    byte[] array() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of valid bytes.
+     *
+     * @return The length.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Discards the contents, keeping the backing array.
+     */
+    void reset() {
+        length = 0;
+    }
+
+    /**
+     * Makes room for at least {@code extra} more bytes.
+     *
+     * @param extra Number of bytes about to be appended.
+     */
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            byte[] larger = new byte[Math.max(bytes.length * 2, length + extra)];
+            System.arraycopy(bytes, 0, larger, 0, length);
+            bytes = larger;
+        }
+    }
+
+    /**
+     * Appends a single byte.
+     *
+     * @param b The byte.
+     * @return This buffer.
+     */
+    LogBuffer append(byte b) {
+        ensure(1);
+        bytes[length++] = b;
+        return this;
+    }
+
+    /**
+     * Appends pre-encoded bytes.
+     *
+     * @param src The bytes to copy.
+     * @return This buffer.
+     */
+    LogBuffer append(byte[] src) {
+        return append(src, 0, src.length);
+    }
+
+    /**
+     * Appends a range of pre-encoded bytes.
+     *
+     * @param src    The source array.
+     * @param offset First byte to copy.
+     * @param count  Number of bytes to copy.
+     * @return This buffer.
+     */
+    LogBuffer append(byte[] src, int offset, int count) {
+        ensure(count);
+        System.arraycopy(src, offset, bytes, length, count);
+        length += count;
+        return this;
+    }
+
+    /**
+     * Appends a string encoded as UTF-8. Unpaired surrogates become {@code '?'}.
+     *
+     * @param s The text, or null for {@code "null"}.
+     * @return This buffer.
+     */
+    LogBuffer appendUtf8(CharSequence s) {
+        if (s == null) {
+            return append(NULL_BYTES);
+        }
+        return appendUtf8(s, 0, s.length());
+    }
+
+    /**
+     * Appends a range of a string encoded as UTF-8. Unpaired surrogates become {@code '?'}.
+     *
+     * @param s     The text.
+     * @param start Index of the first char to encode.
+     * @param end   Index after the last char to encode.
+     * @return This buffer.
+     */
+    LogBuffer appendUtf8(CharSequence s, int start, int end) {
+        ensure(end - start);
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (length == bytes.length) {
+                    ensure(end - i);
+                }
+                bytes[length++] = (byte) c;
+            } else if (c < 0x800) {
+                ensure(2);
+                bytes[length++] = (byte) (0xC0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                ensure(4);
+                bytes[length++] = (byte) (0xF0 | (cp >> 18));
+                bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                ensure(1);
+                bytes[length++] = '?';
+            } else {
+                ensure(3);
+                bytes[length++] = (byte) (0xE0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends a single char encoded as UTF-8. A lone surrogate becomes {@code '?'}.
+     *
+     * @param c The char.
+     * @return This buffer.
+     */
+    LogBuffer appendChar(char c) {
+        ensure(3);
+        if (c < 0x80) {
+            bytes[length++] = (byte) c;
+        } else if (c < 0x800) {
+            bytes[length++] = (byte) (0xC0 | (c >> 6));
+            bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            bytes[length++] = '?';
+        } else {
+            bytes[length++] = (byte) (0xE0 | (c >> 12));
+            bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return this;
+    }
+
+    /**
+     * Appends a double exactly as {@link Double#toString(double)} renders it.
+     * Values in the plain-notation range [10<sup>-3</sup>, 10<sup>7</sup>) with
+     * up to 16 significant digits are encoded directly; others fall back to
+     * {@code Double.toString}.
+     *
+     * @param value The number.
+     * @return This buffer.
+     */
+    LogBuffer appendDouble(double value) {
+        if (appendSpecial(value)) {
+            return this;
+        }
+        double abs = Math.abs(value);
+        if (abs >= 1e-3 && abs < 1e7) {
+            for (int k = 1; k < POW10.length; k++) {
+                double scaled = abs * POW10[k];
+                if (scaled >= MAX_EXACT_LONG) {
+                    break;
+                }
+                long digits = (long) Math.rint(scaled);
+                if (digits / POW10[k] == abs) {
+                    return appendDecimal(value < 0, digits, k);
+                }
+            }
+        }
+        return appendUtf8(Double.toString(value));
+    }
+
+    /**
+     * Appends a float exactly as {@link Float#toString(float)} renders it,
+     * encoding common values directly like {@link #appendDouble(double)}.
+     *
+     * @param value The number.
+     * @return This buffer.
+     */
+    LogBuffer appendFloat(float value) {
+        if (appendSpecial(value)) {
+            return this;
+        }
+        float abs = Math.abs(value);
+        if (abs >= 1e-3f && abs < 1e7f) {
+            for (int k = 1; k < POW10.length; k++) {
+                double scaled = abs * POW10[k];
+                if (scaled >= MAX_EXACT_LONG) {
+                    break;
+                }
+                long digits = (long) Math.rint(scaled);
+                if ((float) (digits / POW10[k]) == abs) {
+                    return appendDecimal(value < 0, digits, k);
+                }
+            }
+        }
+        return appendUtf8(Float.toString(value));
+    }
+
+    /**
+     * Appends NaN, the infinities and signed zero, which have fixed text.
+     *
+     * @param value The number.
+     * @return {@code true} if the value was one of them and has been appended.
+     */
+    private boolean appendSpecial(double value) {
+        if (Double.isNaN(value)) {
+            append(NAN_BYTES);
+        } else if (Double.isInfinite(value)) {
+            if (value < 0) {
+                append((byte) '-');
+            }
+            append(INFINITY_BYTES);
+        } else if (value == 0) {
+            if (Double.doubleToRawLongBits(value) != 0) {
+                append((byte) '-');
+            }
+            append((byte) '0').append((byte) '.').append((byte) '0');
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Appends {@code digits / 10^scale} in plain notation.
+     *
+     * @param negative Whether to prepend a minus sign.
+     * @param digits   The unscaled value.
+     * @param scale    Number of fractional digits, at least 1.
+     * @return This buffer.
+     */
+    private LogBuffer appendDecimal(boolean negative, long digits, int scale) {
+        if (negative) {
+            append((byte) '-');
+        }
+        long unit = (long) POW10[scale];
+        appendLong(digits / unit).append((byte) '.');
+        return appendPadded(digits % unit, scale);
+    }
+
+    /**
+     * Appends the decimal representation of a number without creating a String.
+     *
+     * @param value The number.
+     * @return This buffer.
+     */
+    LogBuffer appendLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(LONG_MIN_BYTES);
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = length + digits;
+        for (int i = end - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        length = end;
+        return this;
+    }
+
+    /**
+     * Appends a non-negative number zero padded to at least {@code width} digits.
+     *
+     * @param value The number.
+     * @param width Minimum number of digits.
+     * @return This buffer.
+     */
+    LogBuffer appendPadded(long value, int width) {
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        ensure(width);
+        for (int i = digits; i < width; i++) {
+            bytes[length++] = '0';
+        }
+        return appendLong(value);
+    }
+
+    /**
+     * Pads the text appended since {@code start} with spaces to at least
+     * {@code width} bytes.
+     *
+     * @param start     Position where the text to pad begins.
+     * @param width     Minimum width in bytes.
+     * @param alignLeft Whether to pad after the text instead of before it.
+     */
+    void padTo(int start, int width, boolean alignLeft) {
+        int missing = width - (length - start);
+        if (missing <= 0) {
+            return;
+        }
+        ensure(missing);
+        if (alignLeft) {
+            Arrays.fill(bytes, length, length + missing, (byte) ' ');
+        } else {
+            System.arraycopy(bytes, start, bytes, start + missing, length - start);
+            Arrays.fill(bytes, start, start + missing, (byte) ' ');
+        }
+        length += missing;
+    }
+
+    /**
+     * Appends a string encoded as UTF-8 and escaped for use inside a JSON
+     * string, in one pass. Printable ASCII is copied directly; everything
+     * else takes the general path of {@link #appendUtf8(CharSequence, int, int)}
+     * and {@link #escapeJson(int)}.
+     *
+     * @param s The text, or null for {@code "null"}.
+     * @return This buffer.
+     */
+    LogBuffer appendJsonUtf8(CharSequence s) {
+        if (s == null) {
+            return append(NULL_BYTES);
+        }
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                bytes[length++] = (byte) c;
+            } else {
+                int start = length;
+                appendUtf8(s, i, n);
+                escapeJson(start);
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Escapes the text appended since {@code start} for use inside a JSON
+     * string, in place: quotes, backslashes and control characters are
+     * escaped, UTF-8 sequences are kept. Text that needs no escaping, the
+     * common case, costs one scan.
+     *
+     * @param start Position where the text to escape begins.
+     */
+    void escapeJson(int start) {
+        int extra = 0;
+        for (int i = start; i < length; i++) {
+            byte b = bytes[i];
+            if (b == '"' || b == '\\') {
+                extra++;
+            } else if (b >= 0 && b < 0x20) {
+                extra += SHORT_JSON_ESCAPES[b] != 0 ? 1 : 5;
+            }
+        }
+        if (extra == 0) {
+            return;
+        }
+        ensure(extra);
+        int dst = length + extra;
+        for (int src = length - 1; src >= start; src--) {
+            byte b = bytes[src];
+            if (b == '"' || b == '\\') {
+                bytes[--dst] = b;
+                bytes[--dst] = '\\';
+            } else if (b >= 0 && b < 0x20) {
+                byte escape = SHORT_JSON_ESCAPES[b];
+                if (escape != 0) {
+                    bytes[--dst] = escape;
+                } else {
+                    bytes[--dst] = HEX_DIGITS[b & 0xF];
+                    bytes[--dst] = HEX_DIGITS[b >> 4];
+                    bytes[--dst] = '0';
+                    bytes[--dst] = '0';
+                    bytes[--dst] = 'u';
+                }
+                bytes[--dst] = '\\';
+            } else {
+                bytes[--dst] = b;
+            }
+        }
+        length += extra;
+    }
+
+    /**
+     * Appends an unsigned LEB128 variable-length integer: seven bits per
+     * byte, least significant group first, high bit set on all but the last.
+     *
+     * @param value The value, treated as unsigned.
+     * @return This buffer.
+     */
+    LogBuffer appendVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Inserts an unsigned LEB128 integer at an earlier position, moving the
+     * bytes after it. Used to length-prefix text whose encoded size is only
+     * known after it has been appended.
+     *
+     * @param position Where to insert the integer.
+     * @param value    The value, treated as unsigned.
+     */
+    void insertVarLong(int position, long value) {
+        int size = 1;
+        for (long v = value >>> 7; v != 0; v >>>= 7) {
+            size++;
+        }
+        ensure(size);
+        System.arraycopy(bytes, position, bytes, position + size, length - position);
+        length += size;
+        for (int i = 0; i < size - 1; i++) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position] = (byte) value;
+    }
+
+    /**
+     * Appends the low bytes of a value in little-endian order.
+     *
+     * @param value The value.
+     * @param count Number of bytes, from 1 to 8.
+     * @return This buffer.
+     */
+    LogBuffer appendFixed(long value, int count) {
+        ensure(count);
+        for (int i = 0; i < count; i++) {
+            bytes[length++] = (byte) value;
+            value >>>= 8;
+        }
+        return this;
+    }
+
+    /**
+     * Returns a copy of the valid bytes.
+     *
+     * @return A new array of {@link #length()} bytes.
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Appends a number as exactly two digits, zero padded.
+     *
+     * @param value A number from 0 to 99.
+     * @return This buffer.
+     */
+    LogBuffer appendTwoDigits(int value) {
+        ensure(2);
+        bytes[length++] = (byte) ('0' + value / 10);
+        bytes[length++] = (byte) ('0' + value % 10);
+        return this;
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogBuilder.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Fluent builder for records with structured key-value fields. Disabled
+ * levels get a shared no-op instance; enabled ones a builder reused per
+ * thread, which keeps primitive values unboxed in parallel arrays until
+ * they are copied into the record.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Builder of one record with structured fields, obtained from
+ * {@link RELogger#atInfo()} and friends:
+ * <pre>
+ *     RELogger.atInfo().with("userId", id).with("latencyUs", 123L).log("served");
+ * </pre>
+ * Fields are rendered by {@code %fields} in pattern layouts, as top-level
+ * keys by {@link JsonLayout} and as typed values in binary logs.
+ * <p>
+ * A builder belongs to the calling thread and must be finished with one of
+ * the {@code log} methods before the next record is started; it must not be
+ * stored or shared. When the level is disabled every method returns
+ * immediately.
+ */
+public final class LogBuilder {
+
+    /** Shared builder for disabled levels; ignores everything. */
+    static final LogBuilder NOOP = new LogBuilder();
+
+    /** Reusable builder of each thread. */
+    private static final ThreadLocal<LogBuilder> POOL = ThreadLocal.withInitial(LogBuilder::new);
+
+    /** Level of the record being built, or null for {@link #NOOP}. */
+    private LogLevel level;
+
+    /** Level of the logger the builder came from; records below it only reach the flight recorder. */
+    private LogLevel threshold;
+
+    /** Precomputed call site, or null to capture the caller's location. */
+    private LogSite site;
+
+    /** Set while a record is being built, so nested use gets a fresh builder. */
+    private boolean inUse;
+
+    /** Number of fields added. */
+    private int count;
+
+    // Fields in insertion order, stored like LogEvent's fields
+    private String[] keys = new String[8];
+    private byte[] kinds = new byte[8];
+    private long[] bits = new long[8];
+    private Object[] values = new Object[8];
+
+    private LogBuilder() {
+    }
+
+    /**
+     * Returns the calling thread's builder, prepared for a new record.
+     *
+     * @param level     The captured level of the record.
+     * @param threshold Level of the logger the record comes from.
+     * @param site      Precomputed call site, or null.
+     * @return The builder.
+     */
+    static LogBuilder acquire(LogLevel level, LogLevel threshold, LogSite site) {
+        LogBuilder builder = POOL.get();
+        if (builder.inUse) {
+            // Started while evaluating a field of another record on this thread
+            builder = new LogBuilder();
+        }
+        builder.inUse = true;
+        builder.level = level;
+        builder.threshold = threshold;
+        builder.site = site;
+        return builder;
+    }
+
+    /**
+     * Adds a field whose value is rendered as text.
+     *
+     * @param key   The field name.
+     * @param value The value; strings and numbers are written without an
+     *              intermediate String, other objects via {@code toString()}.
+     * @return This builder.
+     */
+    public LogBuilder with(String key, Object value) {
+        if (level != null) {
+            add(key, LogEvent.KIND_OBJECT, 0, value);
+        }
+        return this;
+    }
+
+    /**
+     * Adds an integral field without boxing. {@code int}, {@code short} and
+     * {@code byte} values widen to this overload.
+     *
+     * @param key   The field name.
+     * @param value The value.
+     * @return This builder.
+     */
+    public LogBuilder with(String key, long value) {
+        if (level != null) {
+            add(key, LogEvent.KIND_LONG, value, null);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a floating-point field without boxing.
+     *
+     * @param key   The field name.
+     * @param value The value.
+     * @return This builder.
+     */
+    public LogBuilder with(String key, double value) {
+        if (level != null) {
+            add(key, LogEvent.KIND_DOUBLE, Double.doubleToRawLongBits(value), null);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a single-precision field without boxing, printed as a float.
+     *
+     * @param key   The field name.
+     * @param value The value.
+     * @return This builder.
+     */
+    public LogBuilder with(String key, float value) {
+        if (level != null) {
+            add(key, LogEvent.KIND_FLOAT, Float.floatToRawIntBits(value), null);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a boolean field without boxing.
+     *
+     * @param key   The field name.
+     * @param value The value.
+     * @return This builder.
+     */
+    public LogBuilder with(String key, boolean value) {
+        if (level != null) {
+            add(key, LogEvent.KIND_BOOLEAN, value ? 1 : 0, null);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a character field without boxing, printed as a character.
+     *
+     * @param key   The field name.
+     * @param value The value.
+     * @return This builder.
+     */
+    public LogBuilder with(String key, char value) {
+        if (level != null) {
+            add(key, LogEvent.KIND_CHAR, value, null);
+        }
+        return this;
+    }
+
+    /**
+     * Logs the record with a plain message.
+     *
+     * @param message The log message content.
+     */
+    public void log(String message) {
+        if (level != null) {
+            emit(message, 0, null, null);
+        }
+    }
+
+    /**
+     * Logs the record with a {@code {}} template and one argument.
+     *
+     * @param template The message template.
+     * @param arg      The argument.
+     */
+    public void log(String template, Object arg) {
+        if (level != null) {
+            emit(template, 1, arg, null);
+        }
+    }
+
+    /**
+     * Logs the record with a {@code {}} template and two arguments.
+     *
+     * @param template The message template.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     */
+    public void log(String template, Object arg1, Object arg2) {
+        if (level != null) {
+            emit(template, 2, arg1, arg2);
+        }
+    }
+
+    /**
+     * Logs the record with a message built by the supplier on the calling thread.
+     *
+     * @param supplier Builds the message.
+     */
+    public void log(Supplier<String> supplier) {
+        if (level != null) {
+            String message;
+            try {
+                message = supplier.get();
+            } catch (RuntimeException | Error e) {
+                release();
+                throw e;
+            }
+            emit(message, 0, null, null);
+        }
+    }
+
+    /**
+     * Copies the fields into a claimed event.
+     *
+     * @param event The event being filled.
+     */
+    void copyTo(LogEvent event) {
+        for (int i = 0; i < count; i++) {
+            event.addField(keys[i], kinds[i], bits[i], values[i]);
+        }
+    }
+
+    /**
+     * Stores one field, growing the arrays if needed.
+     *
+     * @param key   The field name.
+     * @param kind  One of the {@code LogEvent.KIND_} constants.
+     * @param raw   The primitive value.
+     * @param value The object value.
+     */
+    private void add(String key, byte kind, long raw, Object value) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        if (count == keys.length) {
+            int size = count * 2;
+            keys = Arrays.copyOf(keys, size);
+            kinds = Arrays.copyOf(kinds, size);
+            bits = Arrays.copyOf(bits, size);
+            values = Arrays.copyOf(values, size);
+        }
+        keys[count] = key;
+        kinds[count] = kind;
+        bits[count] = raw;
+        values[count] = value;
+        count++;
+    }
+
+    /**
+     * Hands the record to the logger and releases the builder.
+     *
+     * @param message  The message or template.
+     * @param argCount Number of template arguments, 0 for a plain message.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     */
+    private void emit(String message, int argCount, Object arg1, Object arg2) {
+        try {
+            RELogger.logBuilt(level, threshold, site, message, argCount, arg1, arg2, this);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Drops the fields and makes the builder available again.
+     */
+    private void release() {
+        Arrays.fill(keys, 0, count, null);
+        Arrays.fill(values, 0, count, null);
+        count = 0;
+        level = null;
+        threshold = null;
+        site = null;
+        inUse = false;
+    }
+}
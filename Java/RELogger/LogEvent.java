@@ -0,0 +1,245 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogEvent.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Mutable carrier for a single log record. Instances are preallocated as the
+ * slots of the asynchronous ring buffer, and once per thread for synchronous
+ * logging, and are reused for every event that passes through them, so
+ * publishing a record never allocates.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Arrays;
+
+/**
+ * A single log record captured on the calling thread and rendered later.
+ * Fields are written by exactly one producer and read by exactly one consumer;
+ * visibility is provided by the sequence handoff of {@link LogRingBuffer}.
+ */
+final class LogEvent {
+
+    /** Number of arguments stored inline, without a varargs array. */
+    static final int MAX_INLINE_ARGS = 3;
+
+    // Kinds of inline arguments; primitives are kept unboxed in primitiveArgs
+    static final byte KIND_OBJECT = 0;
+    static final byte KIND_LONG = 1;
+    static final byte KIND_DOUBLE = 2;
+    static final byte KIND_FLOAT = 3;
+    static final byte KIND_BOOLEAN = 4;
+    static final byte KIND_CHAR = 5;
+
+    /** Severity of the record. */
+    LogLevel level;
+
+    /** Wall-clock time of the call, in microseconds since the epoch. */
+    long timestampMicros;
+
+    /** Precomputed call site, or null when the location was captured per call. */
+    LogSite site;
+
+    /** Source file or class of the call site, or null if not captured. */
+    String file;
+
+    /** Source line of the call site, or -1 if not captured. */
+    int line;
+
+    /** Method name of the call site, or null if not captured. */
+    String function;
+
+    /** Name of the thread that logged the record. */
+    String threadName;
+
+    /** The log message content, or the {@code {}} template when {@link #args} is set. */
+    String message;
+
+    /** Arguments of a parameterized message, or null for a plain message. */
+    Object[] args;
+
+    /** Number of valid entries in {@link #args}. */
+    int argCount;
+
+    /** Inline argument storage for the fixed-arity overloads. */
+    private final Object[] inlineArgs = new Object[MAX_INLINE_ARGS];
+
+    /** Kind of each inline argument. */
+    private final byte[] argKinds = new byte[MAX_INLINE_ARGS];
+
+    /** Raw bits of each primitive inline argument; doubles as {@link Double#doubleToRawLongBits}. */
+    private final long[] primitiveArgs = new long[MAX_INLINE_ARGS];
+
+    /** Number of structured fields attached with {@link #addField}. */
+    int fieldCount;
+
+    /** Keys of the structured fields; grown on demand and reused. */
+    String[] fieldKeys;
+
+    /** Kind of each field, one of the {@code KIND_} constants. */
+    byte[] fieldKinds;
+
+    /** Raw bits of each primitive field, encoded as for {@link #setPrimitive}. */
+    long[] fieldBits;
+
+    /** Value of each {@link #KIND_OBJECT} field. */
+    Object[] fieldValues;
+
+    /** Set for a record below its logger's level, captured only for the flight recorder. */
+    boolean recordOnly;
+
+    /** Writer whose ring buffer owns this slot while it is being filled, or null. */
+    AsyncLogWriter writer;
+
+    /** Sequence of this slot in {@link #writer}'s ring buffer. */
+    long sequence;
+
+    /**
+     * Fills this event with the data of a new record.
+     *
+     * @param level           The severity level of the log.
+     * @param timestampMicros Time of the call in epoch microseconds.
+     * @param site            Precomputed call site, or null.
+     * @param file            Source file or class of the call site, or null.
+     * @param line            Source line of the call site, or -1.
+     * @param function        Method name of the call site, or null.
+     * @param threadName      Name of the logging thread.
+     * @param message         The log message content.
+     */
+    void set(LogLevel level, long timestampMicros, LogSite site, String file, int line,
+             String function, String threadName, String message) {
+        this.level = level;
+        this.timestampMicros = timestampMicros;
+        this.site = site;
+        this.file = file;
+        this.line = line;
+        this.function = function;
+        this.threadName = threadName;
+        this.message = message;
+        this.args = null;
+        this.argCount = 0;
+        this.fieldCount = 0;
+        this.recordOnly = false;
+        this.writer = null;
+    }
+
+    /**
+     * Stores up to three template arguments inline.
+     *
+     * @param count Number of arguments, at most {@link #MAX_INLINE_ARGS}.
+     * @param arg0  First argument.
+     * @param arg1  Second argument.
+     * @param arg2  Third argument.
+     */
+    void setArguments(int count, Object arg0, Object arg1, Object arg2) {
+        inlineArgs[0] = arg0;
+        inlineArgs[1] = arg1;
+        inlineArgs[2] = arg2;
+        argKinds[0] = KIND_OBJECT;
+        argKinds[1] = KIND_OBJECT;
+        argKinds[2] = KIND_OBJECT;
+        args = inlineArgs;
+        argCount = count;
+    }
+
+    /**
+     * Replaces an inline argument set by {@link #setArguments(int, Object, Object, Object)}
+     * with an unboxed primitive.
+     *
+     * @param index Index of the argument.
+     * @param kind  One of the {@code KIND_} constants other than {@link #KIND_OBJECT}.
+     * @param bits  The value; integral types and chars as is, booleans as 0/1,
+     *              floating point as raw IEEE bits.
+     */
+    void setPrimitive(int index, byte kind, long bits) {
+        argKinds[index] = kind;
+        primitiveArgs[index] = bits;
+    }
+
+    /**
+     * Returns the kind of an argument. Arguments passed as an array are always objects.
+     *
+     * @param index Index of the argument.
+     * @return One of the {@code KIND_} constants.
+     */
+    byte argKind(int index) {
+        return args == inlineArgs ? argKinds[index] : KIND_OBJECT;
+    }
+
+    /**
+     * Returns the raw bits of a primitive argument.
+     *
+     * @param index Index of the argument.
+     * @return The value as stored by {@link #setPrimitive(int, byte, long)}.
+     */
+    long primitiveArg(int index) {
+        return primitiveArgs[index];
+    }
+
+    /**
+     * Stores template arguments by reference. The array must not be modified
+     * until the event has been written.
+     *
+     * @param arguments The arguments.
+     */
+    void setArguments(Object[] arguments) {
+        args = arguments;
+        argCount = arguments.length;
+    }
+
+    /**
+     * Attaches a structured field. The field arrays are allocated on first
+     * use and grown as needed, then reused by later records in this event.
+     *
+     * @param key   The field name.
+     * @param kind  One of the {@code KIND_} constants.
+     * @param bits  The primitive value, encoded as for {@link #setPrimitive}; ignored for objects.
+     * @param value The object value; ignored for primitives.
+     */
+    void addField(String key, byte kind, long bits, Object value) {
+        if (fieldKeys == null) {
+            fieldKeys = new String[4];
+            fieldKinds = new byte[4];
+            fieldBits = new long[4];
+            fieldValues = new Object[4];
+        } else if (fieldCount == fieldKeys.length) {
+            int size = fieldCount * 2;
+            fieldKeys = Arrays.copyOf(fieldKeys, size);
+            fieldKinds = Arrays.copyOf(fieldKinds, size);
+            fieldBits = Arrays.copyOf(fieldBits, size);
+            fieldValues = Arrays.copyOf(fieldValues, size);
+        }
+        fieldKeys[fieldCount] = key;
+        fieldKinds[fieldCount] = kind;
+        fieldBits[fieldCount] = bits;
+        fieldValues[fieldCount] = value;
+        fieldCount++;
+    }
+
+    /**
+     * Drops all object references so a recycled slot does not keep
+     * messages reachable after they have been written.
+     */
+    void clear() {
+        level = null;
+        site = null;
+        file = null;
+        function = null;
+        threadName = null;
+        message = null;
+        args = null;
+        writer = null;
+        inlineArgs[0] = null;
+        inlineArgs[1] = null;
+        inlineArgs[2] = null;
+        if (fieldCount > 0) {
+            Arrays.fill(fieldKeys, 0, fieldCount, null);
+            Arrays.fill(fieldValues, 0, fieldCount, null);
+            fieldCount = 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogFileLock.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Exclusive lock on a log file, held through an operating-system file lock
+ * on a "<name>.lck" file next to it, so two processes never interleave
+ * writes to the same log.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lock held for as long as a log file is open. The operating system drops
+ * it when the process dies, so a crash never leaves the file locked. The
+ * lock file itself is left in place: deleting it would let a process that
+ * had already opened it lock a different file than the next process.
+ */
+final class LogFileLock {
+
+    /** The open lock file. */
+    private final FileChannel channel;
+
+    /** The lock held on it. */
+    private final FileLock lock;
+
+    private LogFileLock(FileChannel channel, FileLock lock) {
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Locks a log file without waiting.
+     *
+     * @param logFile The log file.
+     * @return The held lock.
+     * @throws IOException If the lock file cannot be opened, or the log file
+     *         is already locked by this or another process.
+     */
+    static LogFileLock acquire(Path logFile) throws IOException {
+        Path lockFile = logFile.resolveSibling(logFile.getFileName() + ".lck");
+        FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IOException("Log file is already open in this process: " + logFile);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("Log file is locked by another process: " + logFile);
+        }
+        return new LogFileLock(channel, lock);
+    }
+
+    /**
+     * Releases the lock.
+     */
+    void release() {
+        try {
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[LOGGER ERROR] Failed to release log file lock: " + e.getMessage());
+        }
+    }
+}
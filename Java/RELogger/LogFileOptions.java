@@ -0,0 +1,122 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogFileOptions.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * How RELogger.init opens its log file: truncated or appended to, and
+ * optionally preallocated in large zero-filled chunks so the file system
+ * allocates contiguous blocks and writes do not change the file size.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Objects;
+
+/**
+ * Open settings for {@link RELogger#init(String, LogFileOptions)}.
+ * <pre>
+ *     LogFileOptions.append()
+ *     LogFileOptions.append().withPreallocation(64 * 1024 * 1024)
+ *     LogFileOptions.append().withDurability(DurabilityPolicy.periodic(1000, 0))
+ * </pre>
+ */
+public final class LogFileOptions {
+
+    /** Truncates the file; the behaviour of {@link RELogger#init(String)}. */
+    private static final LogFileOptions TRUNCATE = new LogFileOptions(false, 0, null);
+
+    /** Appends to the file. */
+    private static final LogFileOptions APPEND = new LogFileOptions(true, 0, null);
+
+    /** Whether existing content is kept. */
+    private final boolean append;
+
+    /** Size of each preallocated chunk in bytes; 0 disables preallocation. */
+    private final long preallocateBytes;
+
+    /** Force settings of this file, or null to follow {@link RELogger#setDurabilityPolicy(DurabilityPolicy)}. */
+    private final DurabilityPolicy durability;
+
+    private LogFileOptions(boolean append, long preallocateBytes, DurabilityPolicy durability) {
+        this.append = append;
+        this.preallocateBytes = preallocateBytes;
+        this.durability = durability;
+    }
+
+    /**
+     * Truncates an existing file.
+     *
+     * @return The truncating options.
+     */
+    public static LogFileOptions truncate() {
+        return TRUNCATE;
+    }
+
+    /**
+     * Keeps the content of an existing file and appends to it.
+     *
+     * @return The appending options.
+     */
+    public static LogFileOptions append() {
+        return APPEND;
+    }
+
+    /**
+     * Returns options that also preallocate the file. The file is extended
+     * with zeros a chunk at a time ahead of the data and truncated to the
+     * data when the logger shuts down. After a crash the zero tail remains;
+     * it is stripped when the file is next opened for appending.
+     *
+     * @param chunkBytes Size of each preallocated chunk in bytes.
+     * @return The preallocating options.
+     */
+    public LogFileOptions withPreallocation(long chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Preallocation size must be positive");
+        }
+        return new LogFileOptions(append, chunkBytes, durability);
+    }
+
+    /**
+     * Returns options that give the file its own durability policy, which
+     * {@link RELogger#setDurabilityPolicy(DurabilityPolicy)} then leaves alone.
+     *
+     * @param policy When output is forced to the device.
+     * @return The combined options.
+     */
+    public LogFileOptions withDurability(DurabilityPolicy policy) {
+        return new LogFileOptions(append, preallocateBytes,
+                Objects.requireNonNull(policy, "DurabilityPolicy cannot be null"));
+    }
+
+    /**
+     * Returns whether an existing file is appended to.
+     *
+     * @return {@code true} to append, {@code false} to truncate.
+     */
+    public boolean isAppend() {
+        return append;
+    }
+
+    /**
+     * Returns the preallocation chunk size.
+     *
+     * @return The size in bytes, or 0 if the file is not preallocated.
+     */
+    public long getPreallocateBytes() {
+        return preallocateBytes;
+    }
+
+    /**
+     * Returns the file's own durability policy.
+     *
+     * @return The policy, or null if the global one applies.
+     */
+    public DurabilityPolicy getDurability() {
+        return durability;
+    }
+}
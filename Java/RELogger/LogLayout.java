@@ -0,0 +1,47 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogLayout.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Base type of the line layouts. A layout encodes one LogEvent into the
+ * shared line buffer, which is then handed to every sink.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+/**
+ * Encoder of log records into lines, selected with
+ * {@link RELogger#setLayout(LogLayout)}.
+ * <p>
+ * Layouts are immutable and shared by all formatting threads. They cannot be
+ * implemented outside this package; use {@link PatternLayout} for custom
+ * text formats.
+ */
+public abstract class LogLayout {
+
+    /** Restricts implementations to this package. */
+    LogLayout() {
+    }
+
+    /**
+     * Appends the encoded record, without a line separator.
+     *
+     * @param event The record to encode.
+     * @param out   The buffer to append to.
+     */
+    abstract void format(LogEvent event, LogBuffer out);
+
+    /**
+     * Returns whether the layout renders sub-millisecond timestamps, so the
+     * logger must read the clock with microsecond resolution.
+     *
+     * @return {@code true} if microseconds are rendered.
+     */
+    boolean usesMicroseconds() {
+        return false;
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogRingBuffer.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Bounded, lock-free, multi-producer ring buffer of preallocated LogEvent
+ * slots. Based on Dmitry Vyukov's bounded MPMC queue: every slot carries a
+ * sequence number that tells producers and consumers whose turn it is, so a
+ * publish is a single CAS on the tail counter plus a release store.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-capacity queue of reusable {@link LogEvent} slots.
+ * <p>
+ * Producers call {@link #tryClaim()}, fill {@link #slot(long)} and then
+ * {@link #publish(long)}. The consumer calls {@link #tryConsume()}, reads the
+ * slot and hands it back with {@link #release(long)}.
+ */
+final class LogRingBuffer {
+
+    /** Preallocated event slots, indexed by {@code sequence & mask}. */
+    private final LogEvent[] slots;
+
+    /** Per-slot turn counters, see the class description. */
+    private final AtomicLongArray turns;
+
+    /** Index mask; capacity is always a power of two. */
+    private final int mask;
+
+    /** Next sequence to be claimed by a producer. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next sequence to be consumed. */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates a ring buffer with at least the requested number of slots.
+     *
+     * @param requestedCapacity Minimum number of slots; rounded up to a power of two.
+     */
+    LogRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.slots = new LogEvent[capacity];
+        this.turns = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LogEvent();
+            turns.set(i, i);
+        }
+    }
+
+    /**
+     * Returns the number of slots in this buffer.
+     *
+     * @return The capacity.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Attempts to reserve the next free slot for a producer.
+     *
+     * @return The claimed sequence, or {@code -1} if the buffer is full.
+     */
+    long tryClaim() {
+        long pos = tail.get();
+        while (true) {
+            long turn = turns.get((int) pos & mask);
+            long diff = turn - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    return pos;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return -1;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Returns the event slot belonging to a claimed or consumed sequence.
+     *
+     * @param sequence A sequence obtained from {@link #tryClaim()} or {@link #tryConsume()}.
+     * @return The slot to fill or read.
+     */
+    LogEvent slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Makes a filled slot visible to the consumer.
+     *
+     * @param sequence The sequence returned by {@link #tryClaim()}.
+     */
+    void publish(long sequence) {
+        turns.lazySet((int) sequence & mask, sequence + 1);
+    }
+
+    /**
+     * Attempts to take the oldest published event.
+     *
+     * @return The consumed sequence, or {@code -1} if nothing is published yet.
+     */
+    long tryConsume() {
+        long pos = head.get();
+        while (true) {
+            long turn = turns.get((int) pos & mask);
+            long diff = turn - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    return pos;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return -1;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Returns a consumed slot to the producers.
+     *
+     * @param sequence The sequence returned by {@link #tryConsume()}.
+     */
+    void release(long sequence) {
+        slots[(int) sequence & mask].clear();
+        turns.lazySet((int) sequence & mask, sequence + mask + 1);
+    }
+
+    /**
+     * Returns an approximate count of claimed but not yet consumed slots.
+     *
+     * @return The number of events in flight.
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogSink.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Destination for formatted log lines. Each line is encoded once into a
+ * byte buffer and the same bytes are handed to every registered sink.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+/**
+ * Output target of the logger, such as the console or a log file.
+ * <p>
+ * All methods are called while the logger's internal lock is held, so
+ * implementations need no synchronization of their own. The byte array is
+ * only valid for the duration of the {@link #write} call.
+ */
+public interface LogSink {
+
+    /**
+     * Writes one formatted line.
+     *
+     * @param level           Severity of the line.
+     * @param timestampMillis Time the line was logged, in epoch milliseconds.
+     * @param line            Buffer holding the UTF-8 encoded line, without a line separator.
+     * @param offset          Offset of the first byte of the line.
+     * @param length          Number of bytes in the line.
+     */
+    void write(LogLevel level, long timestampMillis, byte[] line, int offset, int length);
+
+    /**
+     * Signals the end of a batch: after every synchronous line, and once per
+     * drained batch in asynchronous mode. Buffering sinks flush here if due.
+     */
+    default void endBatch() {
+    }
+
+    /**
+     * Flushes and releases the sink's resources.
+     */
+    default void close() {
+    }
+}
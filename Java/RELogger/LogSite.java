@@ -0,0 +1,129 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: LogSite.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Precomputed call-site handle. A LogSite is created once, typically in a
+ * static final field, and resolves the file name, line and method of the
+ * call site a single time, so logging through it never touches the stack.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Immutable call-site location with its rendered location text cached as
+ * pre-encoded bytes.
+ * <p>
+ * Usage:
+ * <pre>
+ *     private static final LogSite SITE = RELogger.site(MyClass.class, "handle");
+ *     ...
+ *     RELogger.log(SITE, LogLevel.INFO, "Request served");
+ * </pre>
+ */
+public final class LogSite {
+
+    /** Source file of the call site. */
+    private final String fileName;
+
+    /** Source line of the call site. */
+    private final int lineNumber;
+
+    /** Method name of the call site. */
+    private final String methodName;
+
+    /** Cached {@code "file:line (method) "} text as UTF-8, copied straight into output buffers. */
+    private final byte[] locationBytes;
+
+    /**
+     * Creates a site from already resolved location data.
+     *
+     * @param fileName   Source file of the call site.
+     * @param lineNumber Source line of the call site.
+     * @param methodName Method name of the call site.
+     */
+    LogSite(String fileName, int lineNumber, String methodName) {
+        this.fileName = Objects.requireNonNull(fileName, "File name cannot be null");
+        this.lineNumber = lineNumber;
+        this.methodName = Objects.requireNonNull(methodName, "Method name cannot be null");
+        this.locationBytes = (fileName + ":" + lineNumber + " (" + methodName + ") ")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Resolves a site for a method of the given class. The file and line are
+     * taken from the frame that creates the site when it belongs to
+     * {@code owner} (usually its static initializer); otherwise the file
+     * name is derived from the top-level class name and the line is 0.
+     *
+     * @param owner      Class containing the call site.
+     * @param methodName Method name to report.
+     * @param walker     Walker used to find the creating frame.
+     * @return The resolved site.
+     */
+    static LogSite resolve(Class<?> owner, String methodName, StackWalker walker) {
+        Objects.requireNonNull(owner, "Owner class cannot be null");
+        String ownerName = owner.getName();
+        StackWalker.StackFrame frame = walker.walk(frames -> frames
+                .filter(f -> f.getClassName().equals(ownerName))
+                .findFirst()
+                .orElse(null));
+        if (frame != null && frame.getFileName() != null) {
+            return new LogSite(frame.getFileName(), frame.getLineNumber(), methodName);
+        }
+        Class<?> topLevel = owner;
+        while (topLevel.getEnclosingClass() != null) {
+            topLevel = topLevel.getEnclosingClass();
+        }
+        return new LogSite(topLevel.getSimpleName() + ".java", 0, methodName);
+    }
+
+    /**
+     * Returns the source file of the call site.
+     *
+     * @return The file name.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the source line of the call site.
+     *
+     * @return The line number.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the method name of the call site.
+     *
+     * @return The method name.
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Returns the pre-encoded location text, including its trailing space.
+     * The array is shared and must not be modified.
+     *
+     * @return The encoded location.
+     */
+    byte[] locationBytes() {
+        return locationBytes;
+    }
+
+    @Override
+    public String toString() {
+        return fileName + ":" + lineNumber + " (" + methodName + ")";
+    }
+}
@@ -0,0 +1,617 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: Logger.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Named logger with its own level, inherited along the dotted name
+ * hierarchy. The effective level is resolved when the configuration
+ * changes and cached, so checking a call costs one field read.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Logger obtained from {@link RELogger#getLogger(Class)} or
+ * {@link RELogger#getLogger(String)}:
+ * <pre>
+ *     private static final Logger LOG = RELogger.getLogger(OrderService.class);
+ *     LOG.log(LogLevel.DEBUG, "Order {} reserved", orderId);
+ * </pre>
+ * Records go to the same sinks, layout and asynchronous writer as the
+ * static {@link RELogger} methods; only the level threshold is per logger.
+ */
+public final class Logger {
+
+    /** The dotted name. */
+    private final String name;
+
+    /** Own level, or null to inherit; guarded by the logger lock. */
+    LogLevel level;
+
+    /** Level resolved from this logger and its ancestors. */
+    private volatile LogLevel effectiveLevel;
+
+    /** Lowest ordinal captured: the effective level's, or lower for the flight recorder. */
+    private volatile int captureOrdinal;
+
+    /**
+     * @param name The dotted name.
+     */
+    Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Caches the resolved levels. Called by {@link RELogger} whenever the
+     * configuration changes, while holding its lock.
+     *
+     * @param effective The effective level.
+     * @param recorder  The flight recorder, or null.
+     */
+    void update(LogLevel effective, FlightRecorder recorder) {
+        effectiveLevel = effective;
+        captureOrdinal = recorder != null
+                ? Math.min(effective.getOrdinal(), recorder.getLevel().getOrdinal())
+                : effective.getOrdinal();
+    }
+
+    /**
+     * Returns the logger's name.
+     *
+     * @return The dotted name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets this logger's own level, which also applies to descendants that
+     * have none. Changing levels walks every logger, so it is meant for
+     * configuration, not for each call.
+     *
+     * @param level The level, or null to inherit from the nearest ancestor.
+     */
+    public void setLevel(LogLevel level) {
+        RELogger.setLoggerLevel(this, level);
+    }
+
+    /**
+     * Returns this logger's own level.
+     *
+     * @return The level, or null if it is inherited.
+     */
+    public LogLevel getLevel() {
+        return RELogger.getLoggerLevel(this);
+    }
+
+    /**
+     * Returns the level in effect for this logger.
+     *
+     * @return The own level, or the inherited one.
+     */
+    public LogLevel getEffectiveLevel() {
+        return effectiveLevel;
+    }
+
+    /**
+     * Returns whether records of a level reach the sinks.
+     *
+     * @param level The level to check.
+     * @return True if the level is at or above the effective level.
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level.getOrdinal() >= effectiveLevel.getOrdinal();
+    }
+
+    /**
+     * Logs a plain message.
+     *
+     * @param level   The severity level of the log.
+     * @param message The log message content.
+     */
+    public void log(LogLevel level, String message) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, message);
+            if (event != null) {
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message, replacing {@code {}} with the argument.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     * @see RELogger#log(LogLevel, String, Object)
+     */
+    public void log(LogLevel level, String template, Object arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, arg, null, null);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     */
+    public void log(LogLevel level, String template, Object arg1, Object arg2) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(2, arg1, arg2, null);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with three arguments.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     * @param arg3     The third argument.
+     */
+    public void log(LogLevel level, String template, Object arg1, Object arg2, Object arg3) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(3, arg1, arg2, arg3);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with any number of arguments. The array
+     * must not be modified until the record has been written.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param args     The arguments.
+     */
+    public void log(LogLevel level, String template, Object... args) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(args != null ? args : new Object[0]);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one integral argument, without boxing it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogLevel level, String template, long arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_LONG, arg);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one double argument, without boxing it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogLevel level, String template, double arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_DOUBLE, Double.doubleToRawLongBits(arg));
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one float argument, without boxing it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogLevel level, String template, float arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_FLOAT, Float.floatToRawIntBits(arg));
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one char argument, without boxing it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogLevel level, String template, char arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_CHAR, arg);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built by a supplier, which is only called if the level
+     * is captured.
+     *
+     * @param level    The severity level of the log.
+     * @param supplier Builds the log message content.
+     */
+    public void log(LogLevel level, Supplier<String> supplier) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            String message = supplier.get();
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, message);
+            if (event != null) {
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built from {@code state} by a function, which is only
+     * called if the level is captured.
+     *
+     * @param level     The severity level of the log.
+     * @param state     The value the message is built from.
+     * @param formatter Builds the log message content from {@code state}.
+     * @param <T>       Type of the state.
+     * @see RELogger#log(LogLevel, Object, Function)
+     */
+    public <T> void log(LogLevel level, T state, Function<? super T, String> formatter) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            String message = formatter.apply(state);
+            LogEvent event = RELogger.claimAtCaller(level, effectiveLevel, message);
+            if (event != null) {
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a plain message at a precomputed call site, without inspecting the stack.
+     *
+     * @param site    The call-site handle created by {@link RELogger#site(Class, String)}.
+     * @param level   The severity level of the log.
+     * @param message The log message content.
+     * @see RELogger#log(LogSite, LogLevel, String)
+     */
+    public void log(LogSite site, LogLevel level, String message) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, message);
+            if (event != null) {
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message at a precomputed call site.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogSite site, LogLevel level, String template, Object arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, arg, null, null);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments at a precomputed call site.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     */
+    public void log(LogSite site, LogLevel level, String template, Object arg1, Object arg2) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(2, arg1, arg2, null);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with three arguments at a precomputed call site.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     * @param arg3     The third argument.
+     */
+    public void log(LogSite site, LogLevel level, String template, Object arg1, Object arg2, Object arg3) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(3, arg1, arg2, arg3);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with any number of arguments at a
+     * precomputed call site. The array must not be modified until the
+     * record has been written.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param args     The arguments.
+     */
+    public void log(LogSite site, LogLevel level, String template, Object... args) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(args != null ? args : new Object[0]);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one integral argument at a
+     * precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogSite site, LogLevel level, String template, long arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_LONG, arg);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one double argument at a
+     * precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogSite site, LogLevel level, String template, double arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_DOUBLE, Double.doubleToRawLongBits(arg));
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one float argument at a
+     * precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogSite site, LogLevel level, String template, float arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_FLOAT, Float.floatToRawIntBits(arg));
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one char argument at a precomputed
+     * call site, without boxing it.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public void log(LogSite site, LogLevel level, String template, char arg) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_CHAR, arg);
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built by a supplier at a precomputed call site. The
+     * supplier is only called if the level is captured.
+     *
+     * @param site     The call-site handle.
+     * @param level    The severity level of the log.
+     * @param supplier Builds the log message content.
+     */
+    public void log(LogSite site, LogLevel level, Supplier<String> supplier) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            String message = supplier.get();
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, message);
+            if (event != null) {
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built from {@code state} by a function at a
+     * precomputed call site. The function is only called if the level is
+     * captured.
+     *
+     * @param site      The call-site handle.
+     * @param level     The severity level of the log.
+     * @param state     The value the message is built from.
+     * @param formatter Builds the log message content from {@code state}.
+     * @param <T>       Type of the state.
+     */
+    public <T> void log(LogSite site, LogLevel level, T state, Function<? super T, String> formatter) {
+        if (level.getOrdinal() >= captureOrdinal) {
+            String message = formatter.apply(state);
+            LogEvent event = RELogger.claimAtSite(site, level, effectiveLevel, message);
+            if (event != null) {
+                RELogger.publish(event);
+            }
+        }
+    }
+
+    /**
+     * Starts a record with structured fields at the given level.
+     *
+     * @param level The severity level of the record.
+     * @return The builder, or a no-op builder if the level is not captured.
+     * @see RELogger#at(LogLevel)
+     */
+    public LogBuilder at(LogLevel level) {
+        if (level.getOrdinal() < captureOrdinal) {
+            return LogBuilder.NOOP;
+        }
+        return LogBuilder.acquire(level, effectiveLevel, null);
+    }
+
+    /**
+     * Starts a record with structured fields at a precomputed call site.
+     *
+     * @param site  The call-site handle.
+     * @param level The severity level of the record.
+     * @return The builder, or a no-op builder if the level is not captured.
+     * @see RELogger#at(LogSite, LogLevel)
+     */
+    public LogBuilder at(LogSite site, LogLevel level) {
+        if (level.getOrdinal() < captureOrdinal) {
+            return LogBuilder.NOOP;
+        }
+        return LogBuilder.acquire(level, effectiveLevel, Objects.requireNonNull(site, "LogSite cannot be null"));
+    }
+
+    /**
+     * Starts a TRACE record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public LogBuilder atTrace() {
+        return at(LogLevel.TRACE);
+    }
+
+    /**
+     * Starts a DEBUG record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public LogBuilder atDebug() {
+        return at(LogLevel.DEBUG);
+    }
+
+    /**
+     * Starts an INFO record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public LogBuilder atInfo() {
+        return at(LogLevel.INFO);
+    }
+
+    /**
+     * Starts a WARN record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public LogBuilder atWarn() {
+        return at(LogLevel.WARN);
+    }
+
+    /**
+     * Starts an ERROR record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public LogBuilder atError() {
+        return at(LogLevel.ERROR);
+    }
+
+    /**
+     * Starts a FATAL record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public LogBuilder atFatal() {
+        return at(LogLevel.FATAL);
+    }
+
+    @Override
+    public String toString() {
+        return "Logger[" + name + "]";
+    }
+}
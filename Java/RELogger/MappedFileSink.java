@@ -0,0 +1,313 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: MappedFileSink.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Log file sink backed by memory-mapped regions. Lines are copied into the
+ * current region with a bump pointer and the operating system writes the
+ * pages back, so writing a line makes no system call except when a region
+ * fills and the next one is mapped. The file is truncated to the data
+ * actually written when the sink is closed. Regions can be forced to the
+ * device by a background thread according to a DurabilityPolicy.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Memory-mapped log file, for the lowest write latency.
+ * <pre>
+ *     RELogger.addSink(MappedFileSink.open("app.log"));
+ * </pre>
+ * Lines reach the page cache as soon as they are written, so they survive a
+ * crash of the process, but not of the machine, unless a
+ * {@link DurabilityPolicy} passed to {@link #open(String, int, DurabilityPolicy)}
+ * forces them to the device. Flush policies and
+ * {@link RELogger#setDurabilityPolicy(DurabilityPolicy)} do not apply.
+ * <p>
+ * Until {@link #close()} (called by {@link RELogger#shutdown()}) the file is
+ * padded with zero bytes up to the end of the current region. The padding
+ * remains after a process crash, and also after a clean close on platforms
+ * that refuse to truncate a file while it is mapped, such as Windows: Java
+ * cannot unmap a region explicitly, so the last one stays mapped until it is
+ * garbage collected. Readers should strip trailing zero bytes.
+ */
+public final class MappedFileSink implements LogSink {
+
+    /** Size of the regions mapped by {@link #open(String)}. */
+    public static final int DEFAULT_REGION_SIZE = 16 * 1024 * 1024;
+
+    /** Platform line separator, matching the other file sinks. */
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /** The open log file. */
+    private final FileChannel channel;
+
+    /** Size of each mapped region in bytes. */
+    private final int regionSize;
+
+    /** File offset of the current region. */
+    private long regionStart;
+
+    /** The current region; its position is the write pointer. Read by {@link #syncer}. */
+    private volatile MappedByteBuffer region;
+
+    /** Set once the file is closed, or after a failure to map. */
+    private boolean closed;
+
+    /** When written regions are forced to the device. */
+    private final DurabilityPolicy durability;
+
+    /** Filled regions not yet forced by {@link #syncer}. */
+    private final ConcurrentLinkedQueue<MappedByteBuffer> retired = new ConcurrentLinkedQueue<>();
+
+    /** Bytes written since the byte bound last woke {@link #syncer}. */
+    private long unforcedBytes;
+
+    /** Set when a line at or above the sync level is waiting to be forced. */
+    private boolean syncDue;
+
+    /** Background thread forcing filled regions and, if periodic, the current one; or null. */
+    private final Thread syncer;
+
+    /** Tells {@link #syncer} to exit. */
+    private volatile boolean stopSyncer;
+
+    /**
+     * @param channel    The open log file.
+     * @param regionSize Size of each mapped region in bytes.
+     * @param durability When written regions are forced to the device.
+     * @throws IOException If the first region cannot be mapped.
+     */
+    private MappedFileSink(FileChannel channel, int regionSize, DurabilityPolicy durability) throws IOException {
+        this.channel = channel;
+        this.regionSize = regionSize;
+        this.durability = durability;
+        this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+        if (durability.isPeriodic() || durability.getSyncLevel() != null) {
+            syncer = new Thread(this::runSyncer, "RELogger-Sync");
+            syncer.setDaemon(true);
+            syncer.start();
+        } else {
+            syncer = null;
+        }
+    }
+
+    /**
+     * Creates (or truncates) a memory-mapped log file with the default region size.
+     *
+     * @param path The path of the file.
+     * @return The sink.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static MappedFileSink open(String path) throws IOException {
+        return open(path, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Creates (or truncates) a memory-mapped log file.
+     *
+     * @param path       The path of the file.
+     * @param regionSize Size of each mapped region in bytes; a new region is
+     *                   mapped every time this many bytes have been written.
+     * @return The sink.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static MappedFileSink open(String path, int regionSize) throws IOException {
+        return open(path, regionSize, DurabilityPolicy.osBuffered());
+    }
+
+    /**
+     * Creates (or truncates) a memory-mapped log file whose regions are
+     * forced to the device as the policy asks. Periodic forcing runs on a
+     * background thread; lines at or above the sync level are forced before
+     * the batch that holds them ends.
+     *
+     * @param path       The path of the file.
+     * @param regionSize Size of each mapped region in bytes.
+     * @param durability When written regions are forced to the device.
+     * @return The sink.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static MappedFileSink open(String path, int regionSize, DurabilityPolicy durability)
+            throws IOException {
+        Objects.requireNonNull(durability, "DurabilityPolicy cannot be null");
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException("Region size must be positive");
+        }
+        FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            return new MappedFileSink(channel, regionSize, durability);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Copies one line and a line separator into the mapped file.
+     */
+    @Override
+    public void write(LogLevel level, long timestampMillis, byte[] line, int offset, int length) {
+        if (!closed) {
+            put(line, offset, length);
+            put(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+            LogLevel syncLevel = durability.getSyncLevel();
+            if (syncLevel != null && level.getOrdinal() >= syncLevel.getOrdinal()) {
+                syncDue = true;
+            }
+            long maxBytes = durability.getMaxBytes();
+            if (maxBytes > 0 && syncer != null) {
+                unforcedBytes += length + LINE_SEPARATOR.length;
+                if (unforcedBytes >= maxBytes) {
+                    unforcedBytes = 0;
+                    LockSupport.unpark(syncer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forces the written regions if the batch holds a line at or above the
+     * sync level.
+     */
+    @Override
+    public void endBatch() {
+        if (syncDue) {
+            syncDue = false;
+            force();
+        }
+    }
+
+    /**
+     * Stops the background forcer, forces the file unless the policy leaves
+     * that to the operating system, truncates it to the written data where
+     * the platform allows it and closes it.
+     */
+    @Override
+    public void close() {
+        if (closed && region == null) {
+            return;
+        }
+        closed = true;
+        if (syncer != null) {
+            stopSyncer = true;
+            LockSupport.unpark(syncer);
+            try {
+                // Forcing a region while the file is truncated below it is not safe
+                syncer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (region != null && syncer != null) {
+            force();
+        }
+        try {
+            if (region != null) {
+                long length = regionStart + region.position();
+                region = null;
+                channel.truncate(length);
+            }
+        } catch (IOException e) {
+            System.err.println("[LOGGER ERROR] Failed to truncate mapped log file: " + e.getMessage());
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("[LOGGER ERROR] Failed to close mapped log file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Copies bytes at the write pointer, mapping further regions as they fill.
+     *
+     * @param src    The source array.
+     * @param offset First byte to copy.
+     * @param count  Number of bytes to copy.
+     */
+    private void put(byte[] src, int offset, int count) {
+        while (count > 0) {
+            if (!region.hasRemaining() && !mapNextRegion()) {
+                return;
+            }
+            int n = Math.min(count, region.remaining());
+            region.put(src, offset, n);
+            offset += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Forces the filled regions not yet forced and the current region.
+     */
+    private void force() {
+        MappedByteBuffer full;
+        while ((full = retired.poll()) != null) {
+            full.force();
+        }
+        MappedByteBuffer current = region;
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    /**
+     * Background loop that forces the regions at least once per delay bound,
+     * when woken by the byte bound and whenever a region fills. Forcing runs
+     * without any lock, so logging threads keep writing meanwhile.
+     */
+    private void runSyncer() {
+        long delay = durability.getMaxDelayMillis();
+        while (!stopSyncer) {
+            if (delay > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(delay));
+            } else {
+                LockSupport.park(this);
+            }
+            try {
+                force();
+            } catch (RuntimeException e) {
+                System.err.println("[LOGGER ERROR] Failed to force mapped log file: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Maps the region following the current one.
+     *
+     * @return {@code false} if mapping failed and the sink stopped writing.
+     */
+    private boolean mapNextRegion() {
+        try {
+            if (syncer != null) {
+                retired.add(region);
+                LockSupport.unpark(syncer);
+            }
+            region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart + regionSize, regionSize);
+            regionStart += regionSize;
+            return true;
+        } catch (IOException e) {
+            System.err.println("[LOGGER ERROR] Failed to map log file region: " + e.getMessage());
+            closed = true;
+            return false;
+        }
+    }
+}
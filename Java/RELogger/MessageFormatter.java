@@ -0,0 +1,154 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: MessageFormatter.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Substitutes the arguments of a parameterized message into its {} placeholders,
+ * encoding the template text and the rendered arguments directly into the
+ * output buffer. Runs only for enabled records, and on the writer thread in
+ * asynchronous mode.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.util.Arrays;
+
+/**
+ * Formatter for {@code {}} message templates.
+ * <p>
+ * Each {@code {}} is replaced by the next argument. A placeholder preceded by
+ * a backslash ({@code \{}}) is written literally, without the backslash.
+ * Surplus arguments are ignored and surplus placeholders are kept as is.
+ */
+final class MessageFormatter {
+
+    /** Bytes of the text {@code "true"}. */
+    private static final byte[] TRUE_BYTES = {'t', 'r', 'u', 'e'};
+
+    /** Bytes of the text {@code "false"}. */
+    private static final byte[] FALSE_BYTES = {'f', 'a', 'l', 's', 'e'};
+
+    /** Written in place of an argument whose {@code toString()} threw. */
+    private static final byte[] FAILED_TO_STRING = {
+            '[', 'F', 'A', 'I', 'L', 'E', 'D', ' ', 't', 'o', 'S', 't', 'r', 'i', 'n', 'g', '(', ')', ']'
+    };
+
+    private MessageFormatter() {
+    }
+
+    /**
+     * Appends an event's template with its placeholders replaced by the arguments.
+     *
+     * @param event The event holding the template and its arguments.
+     * @param out   The buffer to append to.
+     */
+    static void format(LogEvent event, LogBuffer out) {
+        String template = event.message;
+        int argCount = event.argCount;
+        if (template == null) {
+            out.appendUtf8(null);
+            return;
+        }
+        int length = template.length();
+        int start = 0;
+        int next = 0;
+        int placeholder;
+        while (next < argCount && (placeholder = template.indexOf("{}", start)) >= 0) {
+            if (placeholder > 0 && template.charAt(placeholder - 1) == '\\') {
+                // Escaped: keep the braces, drop the backslash, consume no argument
+                out.appendUtf8(template, start, placeholder - 1);
+                out.append((byte) '{').append((byte) '}');
+            } else {
+                out.appendUtf8(template, start, placeholder);
+                appendArgument(event, next++, out);
+            }
+            start = placeholder + 2;
+        }
+        out.appendUtf8(template, start, length);
+    }
+
+    /**
+     * Appends the text of one argument, decoding unboxed primitives.
+     *
+     * @param event The event holding the arguments.
+     * @param index Index of the argument.
+     * @param out   The buffer to append to.
+     */
+    private static void appendArgument(LogEvent event, int index, LogBuffer out) {
+        byte kind = event.argKind(index);
+        if (kind == LogEvent.KIND_OBJECT) {
+            appendArgument(event.args[index], out);
+        } else {
+            appendValue(kind, event.primitiveArg(index), null, out);
+        }
+    }
+
+    /**
+     * Appends the text of a value stored as a kind plus raw bits or an object,
+     * as template arguments and structured fields are.
+     *
+     * @param kind  One of the {@code LogEvent.KIND_} constants.
+     * @param bits  The primitive value, encoded as for {@link LogEvent#setPrimitive}.
+     * @param value The object value, for {@link LogEvent#KIND_OBJECT}.
+     * @param out   The buffer to append to.
+     */
+    static void appendValue(byte kind, long bits, Object value, LogBuffer out) {
+        switch (kind) {
+            case LogEvent.KIND_LONG -> out.appendLong(bits);
+            case LogEvent.KIND_DOUBLE -> out.appendDouble(Double.longBitsToDouble(bits));
+            case LogEvent.KIND_FLOAT -> out.appendFloat(Float.intBitsToFloat((int) bits));
+            case LogEvent.KIND_BOOLEAN -> out.append(bits != 0 ? TRUE_BYTES : FALSE_BYTES);
+            case LogEvent.KIND_CHAR -> out.appendChar((char) bits);
+            default -> appendArgument(value, out);
+        }
+    }
+
+    /**
+     * Appends the text of one argument. Strings, numbers, characters and
+     * booleans are encoded without an intermediate String; arrays, including
+     * primitive and nested ones, are expanded like {@link Arrays#deepToString}.
+     *
+     * @param arg The argument, or null.
+     * @param out The buffer to append to.
+     */
+    static void appendArgument(Object arg, LogBuffer out) {
+        if (arg == null || arg instanceof CharSequence) {
+            out.appendUtf8((CharSequence) arg);
+        } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            out.appendLong(((Number) arg).longValue());
+        } else if (arg instanceof Double) {
+            out.appendDouble((Double) arg);
+        } else if (arg instanceof Float) {
+            out.appendFloat((Float) arg);
+        } else if (arg instanceof Boolean) {
+            out.append((Boolean) arg ? TRUE_BYTES : FALSE_BYTES);
+        } else if (arg instanceof Character) {
+            out.appendChar((Character) arg);
+        } else {
+            String text;
+            try {
+                text = arg.getClass().isArray() ? arrayToString(arg) : String.valueOf(arg);
+            } catch (RuntimeException e) {
+                out.append(FAILED_TO_STRING);
+                return;
+            }
+            out.appendUtf8(text);
+        }
+    }
+
+    /**
+     * Renders an array of any component type, e.g. {@code [1, 2]} for an {@code int[]}.
+     *
+     * @param array The array.
+     * @return Its elements in brackets, nested arrays expanded.
+     */
+    private static String arrayToString(Object array) {
+        // Wrapping lets deepToString pick the overload for primitive arrays
+        String text = Arrays.deepToString(new Object[] {array});
+        return text.substring(1, text.length() - 1);
+    }
+}
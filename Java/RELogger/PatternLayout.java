@@ -0,0 +1,426 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: PatternLayout.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Configurable text layout. A pattern such as
+ *     %d{HH:mm:ss.SSS} %-5level [%thread] %file:%line - %msg
+ * is parsed once into an array of conversion kinds, each with the
+ * pre-encoded literal text before it; rendering an event is a single loop
+ * over that array, each segment appending its bytes directly to the line
+ * buffer. The default pattern reproduces the original line layout
+ *     [HH:mm:ss] LEVEL file:line (method) - message
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Text layout compiled from a conversion pattern.
+ * <p>
+ * Conversions:
+ * <pre>
+ *     %d, %date         timestamp in the format set by RELogger.setTimestampFormat
+ *     %d{pattern}       timestamp in a TimestampFormat.ofPattern pattern
+ *     %d{ISO8601}       ISO-8601 date and time with milliseconds and offset
+ *     %p, %level        level name
+ *     %t, %thread       name of the logging thread
+ *     %F, %file         source file (the class name under LocationPolicy.CLASS)
+ *     %L, %line         source line
+ *     %M, %method       method name
+ *     %l, %location     "file:line (method) " as in the default layout, or nothing
+ *     %m, %msg          message, with {} arguments substituted
+ *     %fields, %kv      structured fields as " key=value" each, or nothing
+ *     %n                line separator; ignored at the end, as sinks end every line
+ *     %%                a literal percent sign
+ * </pre>
+ * A width between {@code %} and the name pads the output with spaces,
+ * on the left, or on the right when preceded by {@code -} (e.g. {@code %-5level}).
+ * Widths count bytes. Location conversions print nothing when the location
+ * was not captured.
+ */
+public final class PatternLayout extends LogLayout {
+
+    /** Pattern of the original line layout, followed by any structured fields. */
+    public static final String DEFAULT_PATTERN = "[%d] %level %location- %msg%fields";
+
+    /**
+     * Level names, indexed by ordinal. Uses {@link LogLevel#name()}, which matches
+     * {@code RELogger.levelToString}, because RELogger's own initialization
+     * needs the default layout.
+     */
+    private static final byte[][] LEVEL_NAMES = new byte[LogLevel.values().length][];
+
+    static {
+        for (LogLevel level : LogLevel.values()) {
+            LEVEL_NAMES[level.getOrdinal()] = level.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    // Conversion kinds of a compiled pattern
+    private static final byte TIMESTAMP = 1;
+    private static final byte CUSTOM_TIMESTAMP = 2;
+    private static final byte LEVEL = 3;
+    private static final byte THREAD = 4;
+    private static final byte FILE = 5;
+    private static final byte LINE = 6;
+    private static final byte METHOD = 7;
+    private static final byte LOCATION = 8;
+    private static final byte MESSAGE = 9;
+    private static final byte FIELDS = 10;
+
+    /** Layout equivalent to the original hard-coded line format. */
+    private static final PatternLayout DEFAULT = compile(DEFAULT_PATTERN);
+
+    /** The source pattern. */
+    private final String pattern;
+
+    /** Conversion kind of each segment, written in order. */
+    private final byte[] kinds;
+
+    /** Pre-encoded literal text written before each segment's conversion; may be empty. */
+    private final byte[][] prefixes;
+
+    /** Pre-encoded literal text after the last conversion; may be empty. */
+    private final byte[] suffix;
+
+    /**
+     * Literal prefix and level name pre-encoded together, per {@link #LEVEL}
+     * conversion without a width and per level ordinal; null elsewhere.
+     */
+    private final byte[][][] prefixedLevelNames;
+
+    /** Format of each {@link #CUSTOM_TIMESTAMP} conversion. */
+    private final TimestampFormat[] timestampFormats;
+
+    /** Minimum width of each conversion; negative to pad on the right, 0 for none. */
+    private final int[] widths;
+
+    /** Whether any segment renders microseconds. */
+    private final boolean microseconds;
+
+    /**
+     * @param pattern  The source pattern.
+     * @param segments Compiled segments.
+     * @param suffix   Literal text after the last conversion.
+     */
+    private PatternLayout(String pattern, List<Segment> segments, byte[] suffix) {
+        this.pattern = pattern;
+        this.suffix = suffix;
+        int n = segments.size();
+        this.kinds = new byte[n];
+        this.prefixes = new byte[n][];
+        this.prefixedLevelNames = new byte[n][][];
+        this.timestampFormats = new TimestampFormat[n];
+        this.widths = new int[n];
+        boolean micros = false;
+        for (int i = 0; i < n; i++) {
+            Segment segment = segments.get(i);
+            kinds[i] = segment.kind;
+            prefixes[i] = segment.prefix;
+            if (segment.kind == LEVEL && segment.width == 0) {
+                prefixedLevelNames[i] = new byte[LEVEL_NAMES.length][];
+                for (int level = 0; level < LEVEL_NAMES.length; level++) {
+                    byte[] text = Arrays.copyOf(segment.prefix, segment.prefix.length + LEVEL_NAMES[level].length);
+                    System.arraycopy(LEVEL_NAMES[level], 0, text, segment.prefix.length, LEVEL_NAMES[level].length);
+                    prefixedLevelNames[i][level] = text;
+                }
+            }
+            timestampFormats[i] = segment.format;
+            widths[i] = segment.width;
+            micros |= segment.format != null && segment.format.getPrecision() == TimestampPrecision.MICROS;
+        }
+        this.microseconds = micros;
+    }
+
+    /** One parsed conversion with the literal text before it; only used while compiling. */
+    private static final class Segment {
+        /** Conversion kind. */
+        final byte kind;
+        /** Literal text before the conversion. */
+        final byte[] prefix;
+        /** Format of a custom timestamp conversion. */
+        final TimestampFormat format;
+        /** Minimum width; negative to pad on the right. */
+        final int width;
+
+        /**
+         * @param kind   Conversion kind.
+         * @param prefix Literal text before the conversion.
+         * @param format Format of a custom timestamp conversion, or null.
+         * @param width  Minimum width; negative to pad on the right.
+         */
+        Segment(byte kind, byte[] prefix, TimestampFormat format, int width) {
+            this.kind = kind;
+            this.prefix = prefix;
+            this.format = format;
+            this.width = width;
+        }
+    }
+
+    /**
+     * Returns the layout of the original line format, {@link #DEFAULT_PATTERN}.
+     *
+     * @return The default layout.
+     */
+    public static PatternLayout defaultLayout() {
+        return DEFAULT;
+    }
+
+    /**
+     * Parses a conversion pattern into a layout.
+     *
+     * @param pattern The pattern, e.g. {@code "%d{HH:mm:ss.SSS} %-5level %thread %file:%line %msg%n"}.
+     * @return The compiled layout.
+     * @throws IllegalArgumentException If the pattern contains an unknown or malformed conversion.
+     */
+    public static PatternLayout compile(String pattern) {
+        Objects.requireNonNull(pattern, "Pattern cannot be null");
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i++);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i < pattern.length() && pattern.charAt(i) == '%') {
+                literal.append('%');
+                i++;
+                continue;
+            }
+
+            // Optional width: %5level pads on the left, %-5level on the right
+            boolean alignLeft = i < pattern.length() && pattern.charAt(i) == '-';
+            if (alignLeft) {
+                i++;
+            }
+            int width = 0;
+            while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                width = width * 10 + (pattern.charAt(i++) - '0');
+            }
+            int nameStart = i;
+            while (i < pattern.length() && Character.isLetter(pattern.charAt(i))) {
+                i++;
+            }
+            String name = pattern.substring(nameStart, i);
+            String option = null;
+            if (i < pattern.length() && pattern.charAt(i) == '{') {
+                int close = pattern.indexOf('}', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unterminated option at index " + i + ": " + pattern);
+                }
+                option = pattern.substring(i + 1, close);
+                i = close + 1;
+            }
+
+            if (name.equals("n")) {
+                if (i < pattern.length()) {
+                    literal.append(System.lineSeparator());
+                }
+                continue;
+            }
+            TimestampFormat format = null;
+            byte kind;
+            switch (name) {
+                case "d", "date" -> {
+                    if (option == null) {
+                        kind = TIMESTAMP;
+                    } else {
+                        kind = CUSTOM_TIMESTAMP;
+                        format = option.equals("ISO8601")
+                                ? TimestampFormat.iso8601(TimestampPrecision.MILLIS)
+                                : TimestampFormat.ofPattern(option);
+                    }
+                }
+                case "p", "level" -> kind = LEVEL;
+                case "t", "thread" -> kind = THREAD;
+                case "F", "file" -> kind = FILE;
+                case "L", "line" -> kind = LINE;
+                case "M", "method" -> kind = METHOD;
+                case "l", "location" -> kind = LOCATION;
+                case "m", "msg", "message" -> kind = MESSAGE;
+                case "fields", "kv" -> kind = FIELDS;
+                default -> throw new IllegalArgumentException(
+                        "Unknown conversion '%" + name + "' at index " + (nameStart - 1) + ": " + pattern);
+            }
+            segments.add(new Segment(kind, encode(literal), format, alignLeft ? -width : width));
+        }
+        return new PatternLayout(pattern, segments, encode(literal));
+    }
+
+    /**
+     * Encodes the pending literal text and clears it.
+     *
+     * @param literal The pending text.
+     * @return The UTF-8 bytes.
+     */
+    private static byte[] encode(StringBuilder literal) {
+        byte[] bytes = literal.toString().getBytes(StandardCharsets.UTF_8);
+        literal.setLength(0);
+        return bytes;
+    }
+
+    /**
+     * Returns the source pattern.
+     *
+     * @return The pattern.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    void format(LogEvent event, LogBuffer out) {
+        byte[] kinds = this.kinds;
+        for (int i = 0; i < kinds.length; i++) {
+            byte[][] levelNames = prefixedLevelNames[i];
+            if (levelNames != null) {
+                out.append(levelNames[event.level.getOrdinal()]);
+                continue;
+            }
+            appendLiteral(prefixes[i], out);
+            int start = out.length();
+            switch (kinds[i]) {
+                case TIMESTAMP -> RELogger.getTimestampFormat().render(event.timestampMicros, out);
+                case CUSTOM_TIMESTAMP -> timestampFormats[i].render(event.timestampMicros, out);
+                case LEVEL -> out.append(LEVEL_NAMES[event.level.getOrdinal()]);
+                case THREAD -> out.appendUtf8(event.threadName);
+                case FILE -> appendFile(event, out);
+                case LINE -> appendLine(event, out);
+                case METHOD -> appendMethod(event, out);
+                case LOCATION -> appendLocation(event, out);
+                case FIELDS -> appendFields(event, out);
+                default -> appendMessage(event, out);
+            }
+            int width = widths[i];
+            if (width != 0) {
+                out.padTo(start, Math.abs(width), width < 0);
+            }
+        }
+        appendLiteral(suffix, out);
+    }
+
+    /**
+     * Appends literal pattern text; the common empty and single-character
+     * cases avoid an array copy.
+     *
+     * @param literal The pre-encoded text.
+     * @param out     The buffer to append to.
+     */
+    private static void appendLiteral(byte[] literal, LogBuffer out) {
+        if (literal.length == 1) {
+            out.append(literal[0]);
+        } else if (literal.length > 1) {
+            out.append(literal);
+        }
+    }
+
+    /**
+     * Appends the source file, or the class name when only the class was captured.
+     *
+     * @param event The record being formatted.
+     * @param out   The buffer to append to.
+     */
+    private static void appendFile(LogEvent event, LogBuffer out) {
+        String file = event.site != null ? event.site.getFileName() : event.file;
+        if (file != null) {
+            out.appendUtf8(file);
+        }
+    }
+
+    /**
+     * Appends the source line, if captured.
+     *
+     * @param event The record being formatted.
+     * @param out   The buffer to append to.
+     */
+    private static void appendLine(LogEvent event, LogBuffer out) {
+        int line = event.site != null ? event.site.getLineNumber() : event.line;
+        if (line >= 0) {
+            out.appendLong(line);
+        }
+    }
+
+    /**
+     * Appends the method name, if captured.
+     *
+     * @param event The record being formatted.
+     * @param out   The buffer to append to.
+     */
+    private static void appendMethod(LogEvent event, LogBuffer out) {
+        String method = event.site != null ? event.site.getMethodName() : event.function;
+        if (method != null) {
+            out.appendUtf8(method);
+        }
+    }
+
+    /**
+     * Appends the location as printed by the default layout, including its
+     * trailing space, or nothing when it was not captured.
+     *
+     * @param event The record being formatted.
+     * @param out   The buffer to append to.
+     */
+    private static void appendLocation(LogEvent event, LogBuffer out) {
+        if (event.site != null) {
+            out.append(event.site.locationBytes());
+        } else if (event.file != null) {
+            out.appendUtf8(event.file);
+            if (event.line >= 0) {
+                out.append((byte) ':').appendLong(event.line)
+                        .append((byte) ' ').append((byte) '(')
+                        .appendUtf8(event.function)
+                        .append((byte) ')');
+            }
+            out.append((byte) ' ');
+        }
+    }
+
+    /**
+     * Appends the message, with template arguments substituted.
+     *
+     * @param event The record being formatted.
+     * @param out   The buffer to append to.
+     */
+    static void appendMessage(LogEvent event, LogBuffer out) {
+        if (event.args != null) {
+            MessageFormatter.format(event, out);
+        } else {
+            out.appendUtf8(event.message);
+        }
+    }
+
+    /**
+     * Appends each structured field as {@code " key=value"}.
+     *
+     * @param event The record being formatted.
+     * @param out   The buffer to append to.
+     */
+    private static void appendFields(LogEvent event, LogBuffer out) {
+        for (int i = 0; i < event.fieldCount; i++) {
+            out.append((byte) ' ').appendUtf8(event.fieldKeys[i]).append((byte) '=');
+            MessageFormatter.appendValue(event.fieldKinds[i], event.fieldBits[i], event.fieldValues[i], out);
+        }
+    }
+
+    @Override
+    boolean usesMicroseconds() {
+        return microseconds;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
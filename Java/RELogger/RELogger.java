@@ -11,20 +11,51 @@
 /// - Adjustable log level filtering (TRACE → FATAL)
 /// - Thread-safe logging using synchronized blocks
 /// - Colored console output for easy readability
-/// - Optional log file writing with buffered I/O
+/// - Terminal, NO_COLOR and TERM detection with a colorless fast path
+/// - Direct file-descriptor console output with an optional non-blocking mode
+/// - Optional log file writing through an append-mode FileChannel with group commit
+/// - Append or truncate, preallocation and a lock file against a second process
+/// - Durability policies: background periodic fsync and synchronous force per level
+/// - Memory-mapped file sink that makes no system call per line
+/// - Rolling log files by size or hourly/daily with background gzip of finished segments
+/// - Retention of rolled segments by total size and age, indexed in memory
 /// - Includes timestamp, file name, line number, and method name
+/// - Per-level call-site capture policy using a bounded StackWalker walk
+/// - Static LogSite handles that resolve the call site once
+/// - Optional RELoggerAgent that rewrites call sites with constant locations
+/// - Allocation-free formatting into reusable byte buffers shared by all sinks
+/// - Parameterized {} messages, formatted only when the level is enabled
+/// - Primitive argument overloads that never box numbers
+/// - Supplier and Function messages that are only built when the level is enabled
+/// - Cached timestamp rendering with seconds/millis/micros or ISO-8601 output
+/// - Configurable pattern layouts compiled once into segment writers
+/// - JSON Lines layout with single-pass escaping
+/// - Compact binary log with a call-site dictionary and the RELoggerDecode tool
+/// - Fluent builder for structured key-value fields without boxing
+/// - Optional asynchronous mode backed by a lock-free ring buffer
+/// - Configurable backpressure (block, drop oldest, drop below level, sample)
+/// - Off-heap flight recorder of recent records dumped on FATAL, crash or demand
+/// - Named loggers with levels inherited along the dotted-name hierarchy
 /// Usage Example:
 ///     RELogger.init("app.log");
 ///     RELogger.setLevel(LogLevel.INFO);
 ///     RELogger.log(LogLevel.INFO, "Application started successfully!");
 ///     RELogger.shutdown();
+/// Asynchronous Usage:
+///     RELogger.initAsync("app.log", 8192, BackpressurePolicy.dropBelow(LogLevel.WARN));
 /// -----------------------------------------------------------------------------
 package RELogger;
 
 import java.io.*;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Static logging utility for the RE framework.
@@ -33,7 +64,39 @@ import java.util.Objects;
 public class RELogger {
 
     /** Log file writer, initialized if a file path is provided. */
-    private static PrintWriter logFile;
+    private static GroupCommitWriter logFile;
+
+    /** Absolute path of {@link #logFile}, or null. */
+    private static Path openLogPath;
+
+    /** Rolling log file, set by {@link #initRolling(String, String, RollingPolicy)}. */
+    private static RollingFileSink rollingFile;
+
+    /** Binary log writer, set by {@link #initBinary(String)}; guarded by {@link #logLock}. */
+    private static volatile BinaryLogWriter binaryLog;
+
+    /** Whether console lines are colored; detected once, see {@link #setConsoleColors(boolean)}. */
+    private static boolean consoleColors = ConsoleSink.detectColor();
+
+    /** Console output; registered unless a binary log replaces it. Guarded by {@link #logLock}. */
+    private static LogSink consoleSink = new ConsoleSink(consoleColors);
+
+    /** How {@link #consoleSink} writes to the console. */
+    private static ConsoleMode consoleMode = ConsoleMode.SYSTEM_STREAMS;
+
+    /** Every registered sink; replaced as a whole on change and guarded by {@link #logLock}. */
+    private static LogSink[] sinks = {consoleSink};
+
+    /** When buffered file output is handed to the operating system. */
+    private static FlushPolicy flushPolicy = FlushPolicy.everyLine();
+
+    /** When file output handed to the operating system is forced to the device. */
+    private static DurabilityPolicy durabilityPolicy = DurabilityPolicy.osBuffered();
+
+    // Set for files opened with their own durability policy, which setDurabilityPolicy leaves alone
+    private static boolean logFileOwnDurability;
+    private static boolean rollingFileOwnDurability;
+    private static boolean binaryLogOwnDurability;
 
     /** Synchronization lock for thread-safe logging operations. */
     private static final Object logLock = new Object();
@@ -41,8 +104,59 @@ public class RELogger {
     /** Current global logging level threshold. */
     private static LogLevel currentLevel = LogLevel.TRACE;
 
+    /** Lowest level that is captured at all: {@link #currentLevel}, or lower for the flight recorder. */
+    private static LogLevel captureLevel = LogLevel.TRACE;
+
+    /** Named loggers by name; created under {@link #logLock}, looked up without it. */
+    private static final ConcurrentHashMap<String, Logger> loggers = new ConcurrentHashMap<>();
+
+    /** Ring of recent records, or null; see {@link #initFlightRecorder(String, int, LogLevel)}. */
+    private static volatile FlightRecorder flightRecorder;
+
+    /** Whether the default uncaught exception handler dumping the flight recorder is installed. */
+    private static boolean uncaughtHandlerInstalled;
+
+    /** Background writer of the asynchronous mode, or null when logging synchronously. */
+    private static volatile AsyncLogWriter asyncWriter;
+
+    /** Whether the JVM shutdown hook draining the async writer and console is installed. */
+    private static boolean shutdownHookInstalled;
+
+    /** Default number of events buffered in asynchronous mode. */
+    private static final int DEFAULT_ASYNC_CAPACITY = 8192;
+
+    /** Call-site capture mode per level, indexed by ordinal; replaced as a whole on change. */
+    private static volatile LocationPolicy[] locationPolicies = newLocationPolicies();
+
+    /** Package prefix of the logger's own classes, skipped when locating the caller. */
+    private static final String PACKAGE_PREFIX = RELogger.class.getPackageName() + ".";
+
+    /** Walker used to locate the caller without materialising the whole stack. */
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    /** Stack walk that stops at the first frame outside the logger. */
+    private static final Function<Stream<StackWalker.StackFrame>, StackWalker.StackFrame> FIND_CALLER =
+            frames -> frames.filter(frame -> !frame.getClassName().startsWith(PACKAGE_PREFIX))
+                    .findFirst()
+                    .orElse(null);
+
+    /** Reusable event for synchronous logging, one per thread. */
+    private static final ThreadLocal<LogEvent> SYNC_EVENT = ThreadLocal.withInitial(LogEvent::new);
+
+    /** Timestamp layout of the log line. */
+    private static volatile TimestampFormat timestampFormat = TimestampFormat.defaultFormat();
+
+    /** Encoder of the log line. */
+    private static volatile LogLayout layout = PatternLayout.defaultLayout();
+
+    /** Whether timestamps need sub-millisecond resolution. */
+    private static volatile boolean microsecondClock;
+
+    /** Reusable encoding buffer, one per formatting thread. */
+    private static final ThreadLocal<LogBuffer> LINE_BUFFER = ThreadLocal.withInitial(LogBuffer::new);
+
     // ANSI escape codes for colored console output
-    private static final String ANSI_RESET = "\u001B[0m";
+    static final String ANSI_RESET = "\u001B[0m";
     private static final String ANSI_WHITE = "\u001B[37m";
     private static final String ANSI_CYAN = "\u001B[36m";
     private static final String ANSI_GREEN = "\u001B[32m";
@@ -57,7 +171,7 @@ public class RELogger {
      * @param level The log level to convert.
      * @return The corresponding string label.
      */
-    private static String levelToString(LogLevel level) {
+    static String levelToString(LogLevel level) {
         return switch (level) {
             case TRACE -> "TRACE";
             case DEBUG -> "DEBUG";
@@ -74,7 +188,7 @@ public class RELogger {
      * @param level The log level to colorize.
      * @return The corresponding ANSI color code.
      */
-    private static String levelToAnsiColor(LogLevel level) {
+    static String levelToAnsiColor(LogLevel level) {
         return switch (level) {
             case TRACE -> ANSI_GRAY;
             case DEBUG -> ANSI_CYAN;
@@ -85,38 +199,413 @@ public class RELogger {
         };
     }
 
+    /**
+     * Creates the default location policies: full call-site details for every level.
+     *
+     * @return The per-level policies.
+     */
+    private static LocationPolicy[] newLocationPolicies() {
+        LocationPolicy[] policies = new LocationPolicy[LogLevel.values().length];
+        Arrays.fill(policies, LocationPolicy.FULL);
+        return policies;
+    }
+
     /**
      * Initializes the logger, optionally creating or overwriting a log file.
+     * A failure to open the file is reported on stderr and logging continues
+     * without it; use {@link #init(String, LogFileOptions)} to fail instead.
      *
      * @param logFilePath The path of the file to log into. Can be empty to disable file logging.
      */
     public static void init(String logFilePath) {
+        if (logFilePath != null && !logFilePath.isEmpty()) {
+            try {
+                init(logFilePath, LogFileOptions.truncate());
+            } catch (IOException e) {
+                System.err.println(ANSI_RED + "[LOGGER ERROR] Failed to open log file: "
+                        + logFilePath + " (" + e.getMessage() + ")" + ANSI_RESET);
+            }
+        }
+    }
+
+    /**
+     * Initializes the logger with a log file opened as configured:
+     * <pre>
+     *     RELogger.init("app.log", LogFileOptions.append().withPreallocation(64 * 1024 * 1024));
+     * </pre>
+     * The file is locked through {@code app.log.lck} for as long as it is
+     * open, so a second process logging to the same path fails here instead
+     * of interleaving its lines. A log file opened earlier is closed first.
+     *
+     * @param logFilePath The path of the file to log into.
+     * @param options     Whether to append and how far to preallocate.
+     * @throws IOException If the file cannot be opened, or is in use by
+     *                     another process.
+     */
+    public static void init(String logFilePath, LogFileOptions options) throws IOException {
+        Objects.requireNonNull(logFilePath, "Log file path cannot be null");
+        Objects.requireNonNull(options, "LogFileOptions cannot be null");
+        synchronized (logLock) {
+            if (logFile != null) {
+                closeSinkLocked(logFile);
+                logFile = null;
+                openLogPath = null;
+            }
+            logFile = new GroupCommitWriter(logFilePath, flushPolicy, logLock, options);
+            logFileOwnDurability = options.getDurability() != null;
+            logFile.setDurability(logFileOwnDurability ? options.getDurability() : durabilityPolicy);
+            openLogPath = Paths.get(logFilePath).toAbsolutePath().normalize();
+            addSinkLocked(logFile);
+        }
+    }
+
+    /**
+     * Initializes logging into a rolling file. The active file keeps its
+     * path; when the policy rolls, it is renamed after the file pattern,
+     * resolved in the same directory, and a new active file is started:
+     * <pre>
+     *     RELogger.initRolling("logs/app.log", "app-%d{yyyy-MM-dd}-%i.log.gz",
+     *             RollingPolicy.daily().withMaxBytes(256L * 1024 * 1024));
+     * </pre>
+     * {@code %d} or {@code %d{DateTimeFormatter pattern}} is the start of the
+     * segment, {@code %i} the lowest index giving an unused name. A pattern
+     * ending in {@code .gz} compresses finished segments on a background
+     * thread, so logging threads only pay for the rename. A non-empty file
+     * left at the active path is rolled first instead of being overwritten.
+     * The active file is locked against other processes like
+     * {@link #init(String, LogFileOptions)} does. A rolling file opened
+     * earlier is closed first.
+     *
+     * @param logFilePath The path of the active log file.
+     * @param filePattern Name pattern of finished segments; must contain
+     *                    {@code %i} if the policy rolls by size.
+     * @param policy      When to roll.
+     * @throws IllegalArgumentException If the file pattern is malformed.
+     * @see #initRolling(String, String, RollingPolicy, RetentionPolicy)
+     */
+    public static void initRolling(String logFilePath, String filePattern, RollingPolicy policy) {
+        initRolling(logFilePath, filePattern, policy, null);
+    }
+
+    /**
+     * Initializes logging into a rolling file whose finished segments are
+     * deleted, oldest first, once they exceed a total size or an age:
+     * <pre>
+     *     RELogger.initRolling("logs/app.log", "app-%d-%i.log.gz", RollingPolicy.size(256L &lt;&lt; 20),
+     *             RetentionPolicy.maxTotalSize(10L &lt;&lt; 30).withMaxAge(Duration.ofDays(14)));
+     * </pre>
+     * Segments matching the pattern are listed once at startup, including
+     * those of earlier runs; after that an in-memory index is kept, and
+     * deletion happens on the background thread that also compresses.
+     *
+     * @param logFilePath The path of the active log file.
+     * @param filePattern Name pattern of finished segments; must contain
+     *                    {@code %i} if the policy rolls by size.
+     * @param policy      When to roll.
+     * @param retention   Which finished segments to keep, or null for all.
+     * @throws IllegalArgumentException If the file pattern is malformed.
+     */
+    public static void initRolling(String logFilePath, String filePattern, RollingPolicy policy,
+                                   RetentionPolicy retention) {
+        initRolling(logFilePath, filePattern, policy, retention, null);
+    }
+
+    /**
+     * Initializes logging into a rolling file with its own durability
+     * policy, which {@link #setDurabilityPolicy(DurabilityPolicy)} then
+     * leaves alone.
+     *
+     * @param logFilePath The path of the active log file.
+     * @param filePattern Name pattern of finished segments; must contain
+     *                    {@code %i} if the policy rolls by size.
+     * @param policy      When to roll.
+     * @param retention   Which finished segments to keep, or null for all.
+     * @param durability  When output is forced to the device, or null for the global policy.
+     * @throws IllegalArgumentException If the file pattern is malformed.
+     */
+    public static void initRolling(String logFilePath, String filePattern, RollingPolicy policy,
+                                   RetentionPolicy retention, DurabilityPolicy durability) {
+        Objects.requireNonNull(logFilePath, "Log file path cannot be null");
+        Objects.requireNonNull(filePattern, "File pattern cannot be null");
+        Objects.requireNonNull(policy, "RollingPolicy cannot be null");
+        RollingFileSink previous = null;
+        synchronized (logLock) {
+            if (rollingFile != null) {
+                previous = rollingFile;
+                closeSinkLocked(rollingFile);
+                rollingFile = null;
+            }
+            try {
+                rollingFile = new RollingFileSink(logFilePath, filePattern, policy, retention, flushPolicy,
+                        logLock);
+                rollingFileOwnDurability = durability != null;
+                rollingFile.setDurability(rollingFileOwnDurability ? durability : durabilityPolicy);
+                addSinkLocked(rollingFile);
+            } catch (IOException e) {
+                System.err.println(ANSI_RED + "[LOGGER ERROR] Failed to open log file: "
+                        + logFilePath + " (" + e.getMessage() + ")" + ANSI_RESET);
+            }
+        }
+        if (previous != null) {
+            // Outside the lock: pending compressions of the old file may take a while
+            previous.awaitClosed();
+        }
+    }
+
+    /**
+     * Initializes compact binary logging. Instead of formatting text, each
+     * record is written as a dictionary ID, a timestamp delta, a thread ID and
+     * its raw argument values; the level, location and template of each call
+     * site are stored once. Use {@link RELoggerDecode} to turn the file back
+     * into the text the default or any other layout would have produced.
+     * <p>
+     * The binary log replaces the console output. Sinks added with
+     * {@link #addSink(LogSink)} and a file opened by {@link #init(String)}
+     * still receive text lines. Combine with {@link #initAsync(String)} and an
+     * empty path to move encoding off the logging threads.
+     *
+     * @param binaryLogPath The path of the binary log file to create or overwrite.
+     */
+    public static void initBinary(String binaryLogPath) {
+        initBinary(binaryLogPath, null);
+    }
+
+    /**
+     * Initializes compact binary logging with its own durability policy,
+     * which {@link #setDurabilityPolicy(DurabilityPolicy)} then leaves alone.
+     *
+     * @param binaryLogPath The path of the binary log file to create or overwrite.
+     * @param durability    When output is forced to the device, or null for the global policy.
+     * @see #initBinary(String)
+     */
+    public static void initBinary(String binaryLogPath, DurabilityPolicy durability) {
+        Objects.requireNonNull(binaryLogPath, "Binary log path cannot be null");
+        synchronized (logLock) {
+            try {
+                BinaryLogWriter writer = new BinaryLogWriter(binaryLogPath, flushPolicy, logLock);
+                writer.setDurability(durability != null ? durability : durabilityPolicy);
+                if (binaryLog != null) {
+                    binaryLog.close();
+                }
+                binaryLog = writer;
+                binaryLogOwnDurability = durability != null;
+                sinks = Arrays.stream(sinks).filter(s -> s != consoleSink).toArray(LogSink[]::new);
+            } catch (IOException e) {
+                System.err.println(ANSI_RED + "[LOGGER ERROR] Failed to open binary log file: "
+                        + binaryLogPath + ANSI_RESET);
+            }
+        }
+    }
+
+    /**
+     * Initializes the logger in asynchronous mode with the default buffer capacity.
+     *
+     * @param logFilePath The path of the file to log into. Can be empty to disable file logging.
+     * @see #initAsync(String, int)
+     */
+    public static void initAsync(String logFilePath) {
+        initAsync(logFilePath, DEFAULT_ASYNC_CAPACITY);
+    }
+
+    /**
+     * Initializes the logger in asynchronous mode. Calls to {@code log} only
+     * capture the call site and publish the record into a preallocated ring
+     * buffer; a dedicated writer thread performs formatting, console output
+     * and file I/O. Callers block only when the buffer is full.
+     *
+     * @param logFilePath The path of the file to log into. Can be empty to disable file logging.
+     * @param capacity    Number of events that can be buffered; rounded up to a power of two.
+     */
+    public static void initAsync(String logFilePath, int capacity) {
+        initAsync(logFilePath, capacity, BackpressurePolicy.block());
+    }
+
+    /**
+     * Initializes the logger in asynchronous mode with an explicit overload
+     * policy. Dropped and blocked events are counted per level and
+     * summarised periodically in the log itself.
+     *
+     * @param logFilePath The path of the file to log into. Can be empty to disable file logging.
+     *                    A file already opened at this path by {@link #init(String)} is kept.
+     * @param capacity    Number of events that can be buffered; rounded up to a power of two.
+     * @param policy      What logging threads do when the buffer is full.
+     */
+    public static void initAsync(String logFilePath, int capacity, BackpressurePolicy policy) {
+        AsyncLogWriter writer = new AsyncLogWriter(capacity,
+                Objects.requireNonNull(policy, "BackpressurePolicy cannot be null"));
+        stopAsyncWriter();
+        synchronized (logLock) {
+            if (logFilePath != null && !logFilePath.isEmpty()
+                    && !Paths.get(logFilePath).toAbsolutePath().normalize().equals(openLogPath)) {
+                init(logFilePath);
+            }
+            writer.start();
+            asyncWriter = writer;
+            installShutdownHook();
+        }
+    }
+
+    /**
+     * Installs a JVM shutdown hook calling {@link #shutdown()}, once.
+     * Must be called while holding {@link #logLock}.
+     */
+    private static void installShutdownHook() {
+        if (!shutdownHookInstalled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(RELogger::shutdown, "RELogger-Shutdown"));
+            shutdownHookInstalled = true;
+        }
+    }
+
+    /**
+     * Selects how console lines are written. The default
+     * {@link ConsoleMode#SYSTEM_STREAMS} goes through {@code System.out} and
+     * {@code System.err}. {@link ConsoleMode#DIRECT} writes to the file
+     * descriptors with one write per batch. {@link ConsoleMode#NON_BLOCKING}
+     * queues up to 1 MB per stream for a background thread and drops lines,
+     * with a summary on stderr, when the terminal or log driver cannot keep
+     * up, so a slow console never stalls the application.
+     *
+     * @param mode The console mode.
+     */
+    public static void setConsoleMode(ConsoleMode mode) {
+        Objects.requireNonNull(mode, "ConsoleMode cannot be null");
         synchronized (logLock) {
-            if (logFilePath != null && !logFilePath.isEmpty()) {
-                try {
-                    logFile = new PrintWriter(new BufferedWriter(new FileWriter(logFilePath)));
-                } catch (IOException e) {
-                    System.err.println(ANSI_RED + "[LOGGER ERROR] Failed to open log file: "
-                            + logFilePath + ANSI_RESET);
+            if (mode != consoleMode) {
+                consoleMode = mode;
+                replaceConsoleSink();
+                if (mode == ConsoleMode.NON_BLOCKING) {
+                    installShutdownHook();
                 }
             }
         }
     }
 
+    /**
+     * Overrides whether console lines are colored. By default colors are
+     * used only when the JVM is attached to a terminal, {@code NO_COLOR} is
+     * not set and {@code TERM} is not {@code dumb}, or when
+     * {@code FORCE_COLOR} is set; redirected output and container log pipes
+     * get plain lines. Both variants are pre-encoded, so the choice costs
+     * nothing per line.
+     *
+     * @param colors Whether to wrap console lines in ANSI color sequences.
+     */
+    public static void setConsoleColors(boolean colors) {
+        synchronized (logLock) {
+            if (colors != consoleColors) {
+                consoleColors = colors;
+                replaceConsoleSink();
+            }
+        }
+    }
+
+    /**
+     * Replaces the console sink with one for the current mode and color
+     * setting. Must be called while holding {@link #logLock}.
+     */
+    private static void replaceConsoleSink() {
+        LogSink previous = consoleSink;
+        LogSink replacement = switch (consoleMode) {
+            case SYSTEM_STREAMS -> new ConsoleSink(consoleColors);
+            case DIRECT -> new DirectConsoleSink(false, consoleColors);
+            case NON_BLOCKING -> new DirectConsoleSink(true, consoleColors);
+        };
+        sinks = Arrays.stream(sinks).map(s -> s == previous ? replacement : s).toArray(LogSink[]::new);
+        consoleSink = replacement;
+        if (previous instanceof DirectConsoleSink) {
+            ((DirectConsoleSink) previous).stop();
+        }
+    }
+
+    /**
+     * Stops the asynchronous writer, if any, after it has written every
+     * pending event. Logging falls back to synchronous mode afterwards.
+     */
+    private static void stopAsyncWriter() {
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            asyncWriter = null;
+            writer.stop();
+        }
+    }
+
     /**
      * Closes and flushes the logger’s file output stream, if any.
+     * In asynchronous mode all pending events are written first.
      * Should be called before program termination to ensure no data loss.
      */
     public static void shutdown() {
+        stopAsyncWriter();
+        RollingFileSink rolling;
         synchronized (logLock) {
-            if (logFile != null) {
-                logFile.flush();
-                logFile.close();
-                logFile = null;
+            rolling = rollingFile;
+            for (LogSink sink : sinks) {
+                if (sink != consoleSink) {
+                    sink.close();
+                }
             }
+            if (binaryLog != null) {
+                binaryLog.close();
+                binaryLog = null;
+            }
+            // Drains buffered console output; the console sink itself stays registered
+            consoleSink.close();
+            sinks = new LogSink[] {consoleSink};
+            logFile = null;
+            openLogPath = null;
+            rollingFile = null;
+        }
+        if (rolling != null) {
+            rolling.awaitClosed();
+        }
+    }
+
+    /**
+     * Registers an additional output. Every line is encoded once and the
+     * same bytes are handed to all sinks. Sinks are closed by {@link #shutdown()}.
+     *
+     * @param sink The sink to add.
+     */
+    public static void addSink(LogSink sink) {
+        Objects.requireNonNull(sink, "LogSink cannot be null");
+        synchronized (logLock) {
+            addSinkLocked(sink);
+        }
+    }
+
+    /**
+     * Unregisters an output added with {@link #addSink(LogSink)} without closing it.
+     *
+     * @param sink The sink to remove.
+     */
+    public static void removeSink(LogSink sink) {
+        synchronized (logLock) {
+            LogSink[] remaining = Arrays.stream(sinks).filter(s -> s != sink).toArray(LogSink[]::new);
+            sinks = remaining;
         }
     }
 
+    /**
+     * Unregisters a sink and closes it. Caller must hold {@link #logLock}.
+     *
+     * @param sink The sink to close.
+     */
+    private static void closeSinkLocked(LogSink sink) {
+        sinks = Arrays.stream(sinks).filter(s -> s != sink).toArray(LogSink[]::new);
+        sink.close();
+    }
+
+    /**
+     * Appends a sink to the registered sinks. Caller must hold {@link #logLock}.
+     *
+     * @param sink The sink to add.
+     */
+    private static void addSinkLocked(LogSink sink) {
+        LogSink[] extended = Arrays.copyOf(sinks, sinks.length + 1);
+        extended[sinks.length] = sink;
+        sinks = extended;
+    }
+
     /**
      * Sets the minimum log level to be recorded or displayed.
      * Messages below this level are ignored.
@@ -126,58 +615,1186 @@ public class RELogger {
     public static void setLevel(LogLevel level) {
         synchronized (logLock) {
             currentLevel = Objects.requireNonNull(level, "LogLevel cannot be null");
+            updateCaptureLevel();
         }
     }
 
     /**
-     * Returns the currently configured log level threshold.
+     * Recomputes {@link #captureLevel} and the cached levels of every named
+     * logger. Must be called while holding {@link #logLock}.
+     */
+    private static void updateCaptureLevel() {
+        FlightRecorder recorder = flightRecorder;
+        captureLevel = recorder != null && recorder.getLevel().getOrdinal() < currentLevel.getOrdinal()
+                ? recorder.getLevel() : currentLevel;
+        for (Logger logger : loggers.values()) {
+            logger.update(effectiveLevel(logger.getName()), recorder);
+        }
+    }
+
+    /**
+     * Returns the named logger for a class, e.g. {@code getLogger(OrderService.class)}
+     * for {@code "com.shop.orders.OrderService"}.
      *
-     * @return The current log level.
+     * @param type The class.
+     * @return The logger named after the class's binary name.
+     * @see #getLogger(String)
      */
-    public static LogLevel getLevel() {
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getName());
+    }
+
+    /**
+     * Returns the logger with the given dotted name, creating it on first
+     * use. A logger without its own level inherits that of its nearest
+     * ancestor by name that has one ({@code "com.shop"} for
+     * {@code "com.shop.orders.OrderService"}), and finally the level set
+     * with {@link #setLevel(LogLevel)}:
+     * <pre>
+     *     RELogger.setLevel(LogLevel.INFO);
+     *     RELogger.getLogger("com.shop.orders").setLevel(LogLevel.DEBUG);
+     * </pre>
+     * Ancestors need not exist as loggers themselves. Lookups of an existing
+     * logger do not lock; keep the result in a {@code static final} field.
+     *
+     * @param name The dotted logger name.
+     * @return The logger.
+     */
+    public static Logger getLogger(String name) {
+        Objects.requireNonNull(name, "Logger name cannot be null");
+        Logger logger = loggers.get(name);
+        if (logger != null) {
+            return logger;
+        }
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Logger name cannot be empty");
+        }
         synchronized (logLock) {
-            return currentLevel;
+            logger = loggers.get(name);
+            if (logger == null) {
+                logger = new Logger(name);
+                logger.update(effectiveLevel(name), flightRecorder);
+                loggers.put(name, logger);
+            }
+            return logger;
         }
     }
 
     /**
-     * Logs a message to the console and optionally to a log file.
-     * Includes contextual metadata such as file name, line number, and method name.
+     * Sets or clears the own level of a named logger and recomputes the
+     * cached levels of all loggers.
      *
-     * @param level   The severity level of the log.
-     * @param message The log message content.
+     * @param logger The logger.
+     * @param level  The level, or null to inherit.
      */
-    public static void log(LogLevel level, String message, boolean DEBUG) {
-        if (DEBUG && level.getOrdinal() >= currentLevel.getOrdinal()) {
-            // Capture call site information for better debugging
-            StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-            StackTraceElement caller = stackTrace[2];
-            String file = caller.getFileName() != null ? caller.getFileName() : "Unknown";
-            int line = caller.getLineNumber();
-            String func = caller.getMethodName();
+    static void setLoggerLevel(Logger logger, LogLevel level) {
+        synchronized (logLock) {
+            logger.level = level;
+            updateCaptureLevel();
+        }
+    }
 
-            synchronized (logLock) {
-                // Generate timestamp in HH:mm:ss format
-                String timestamp = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-                String color = levelToAnsiColor(level);
-
-                // Select output stream: stdout for info, stderr for errors
-                PrintStream out = (level.getOrdinal() >= LogLevel.ERROR.getOrdinal()) ? System.err : System.out;
-
-                // Print to console with color
-                out.println(color + "[" + timestamp + "] "
-                        + levelToString(level) + " "
-                        + file + ":" + line + " (" + func + ") - "
-                        + message + ANSI_RESET);
-
-                // Write to log file if enabled
-                if (logFile != null) {
-                    logFile.println("[" + timestamp + "] "
-                            + levelToString(level) + " "
-                            + file + ":" + line + " (" + func + ") - "
-                            + message);
-                    logFile.flush();
-                }
+    /**
+     * Returns the own level of a named logger.
+     *
+     * @param logger The logger.
+     * @return The level, or null if it is inherited.
+     */
+    static LogLevel getLoggerLevel(Logger logger) {
+        synchronized (logLock) {
+            return logger.level;
+        }
+    }
+
+    /**
+     * Resolves the level of a logger name: its own, else that of the nearest
+     * ancestor name with a logger that has one, else {@link #currentLevel}.
+     * Must be called while holding {@link #logLock}.
+     *
+     * @param name The dotted logger name.
+     * @return The effective level.
+     */
+    private static LogLevel effectiveLevel(String name) {
+        String current = name;
+        while (true) {
+            Logger logger = loggers.get(current);
+            if (logger != null && logger.level != null) {
+                return logger.level;
+            }
+            int dot = current.lastIndexOf('.');
+            if (dot < 0) {
+                return currentLevel;
+            }
+            current = current.substring(0, dot);
+        }
+    }
+
+    /**
+     * Starts an in-memory flight recorder keeping the last {@code records}
+     * formatted lines at or above {@code level}, including levels below the
+     * logger's own threshold, which then reach only the recorder:
+     * <pre>
+     *     RELogger.setLevel(LogLevel.WARN);
+     *     RELogger.initFlightRecorder("crash.log", 10_000, LogLevel.TRACE);
+     * </pre>
+     * The ring lives off-heap in slots of 512 bytes; longer lines are
+     * truncated. It is appended to the crash file when a FATAL record is
+     * logged, when a thread dies of an uncaught exception, and on
+     * {@link #dumpFlightRecorder()}. Records below the threshold are
+     * formatted on the calling thread and copied into the ring without
+     * taking the logger's lock or a slot of the asynchronous buffer; use
+     * {@link LocationPolicy#NONE} for those levels to skip their stack walk.
+     *
+     * @param crashFilePath File the dumps are appended to.
+     * @param records       Number of records kept.
+     * @param level         Lowest level recorded.
+     */
+    public static void initFlightRecorder(String crashFilePath, int records, LogLevel level) {
+        Objects.requireNonNull(crashFilePath, "Crash file path cannot be null");
+        Objects.requireNonNull(level, "LogLevel cannot be null");
+        if (records <= 0) {
+            throw new IllegalArgumentException("Record count must be positive");
+        }
+        FlightRecorder recorder = new FlightRecorder(records, level, Paths.get(crashFilePath));
+        synchronized (logLock) {
+            flightRecorder = recorder;
+            updateCaptureLevel();
+            if (!uncaughtHandlerInstalled) {
+                Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+                Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+                    FlightRecorder current = flightRecorder;
+                    if (current != null) {
+                        current.dumpQuietly("uncaught " + e + " in thread \"" + thread.getName() + "\"");
+                    }
+                    if (previous != null) {
+                        previous.uncaughtException(thread, e);
+                    } else {
+                        // What ThreadGroup does without a default handler
+                        System.err.print("Exception in thread \"" + thread.getName() + "\" ");
+                        e.printStackTrace(System.err);
+                    }
+                });
+                uncaughtHandlerInstalled = true;
+            }
+        }
+    }
+
+    /**
+     * Appends the flight recorder's records to its crash file.
+     *
+     * @throws IOException If the crash file cannot be written.
+     * @throws IllegalStateException If no flight recorder was started.
+     */
+    public static void dumpFlightRecorder() throws IOException {
+        FlightRecorder recorder = flightRecorder;
+        if (recorder == null) {
+            throw new IllegalStateException("Flight recorder not initialized");
+        }
+        recorder.dump("on demand");
+    }
+
+    /**
+     * Sets how much call-site information is captured for one level.
+     * {@link LocationPolicy#NONE} skips the stack walk entirely, which makes
+     * high-volume levels such as TRACE and DEBUG much cheaper.
+     *
+     * @param level  The level to configure.
+     * @param policy The capture mode for that level.
+     */
+    public static void setLocationPolicy(LogLevel level, LocationPolicy policy) {
+        Objects.requireNonNull(level, "LogLevel cannot be null");
+        Objects.requireNonNull(policy, "LocationPolicy cannot be null");
+        synchronized (logLock) {
+            LocationPolicy[] policies = locationPolicies.clone();
+            policies[level.getOrdinal()] = policy;
+            locationPolicies = policies;
+        }
+    }
+
+    /**
+     * Returns the call-site capture mode of a level.
+     *
+     * @param level The level to query.
+     * @return The configured location policy.
+     */
+    public static LocationPolicy getLocationPolicy(LogLevel level) {
+        return locationPolicies[level.getOrdinal()];
+    }
+
+    /**
+     * Sets the timestamp layout, e.g. {@code TimestampFormat.time(TimestampPrecision.MILLIS)}
+     * or {@code TimestampFormat.iso8601(TimestampPrecision.MICROS)}. The default
+     * is {@code HH:mm:ss}.
+     *
+     * @param format The timestamp format.
+     */
+    public static void setTimestampFormat(TimestampFormat format) {
+        Objects.requireNonNull(format, "TimestampFormat cannot be null");
+        synchronized (logLock) {
+            timestampFormat = format;
+            updateClockResolution();
+        }
+    }
+
+    /**
+     * Returns the configured timestamp layout.
+     *
+     * @return The timestamp format.
+     */
+    public static TimestampFormat getTimestampFormat() {
+        return timestampFormat;
+    }
+
+    /**
+     * Sets the line layout, e.g.
+     * {@code PatternLayout.compile("%d{HH:mm:ss.SSS} %-5level [%thread] %file:%line - %msg")}.
+     * The default is {@link PatternLayout#defaultLayout()}.
+     *
+     * @param newLayout The layout.
+     */
+    public static void setLayout(LogLayout newLayout) {
+        Objects.requireNonNull(newLayout, "LogLayout cannot be null");
+        synchronized (logLock) {
+            layout = newLayout;
+            updateClockResolution();
+        }
+    }
+
+    /**
+     * Returns the line layout.
+     *
+     * @return The layout.
+     */
+    public static LogLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Reads the clock with microsecond resolution only while the timestamp
+     * format or the layout renders microseconds. Called with {@link #logLock} held.
+     */
+    private static void updateClockResolution() {
+        microsecondClock = timestampFormat.getPrecision() == TimestampPrecision.MICROS
+                || layout.usesMicroseconds();
+    }
+
+    /**
+     * Reads the wall clock with the resolution the timestamp format needs.
+     *
+     * @return The current time in epoch microseconds.
+     */
+    private static long currentTimeMicros() {
+        if (microsecondClock) {
+            Instant now = Instant.now();
+            return now.getEpochSecond() * 1_000_000L + now.getNano() / 1000;
+        }
+        return System.currentTimeMillis() * 1000;
+    }
+
+    /**
+     * Sets when log file output is flushed. The default flushes every line;
+     * {@link FlushPolicy#batched(int, long, LogLevel)} coalesces lines into a
+     * single write. Applies to the open log file and to files opened later.
+     *
+     * @param policy The flush policy.
+     */
+    public static void setFlushPolicy(FlushPolicy policy) {
+        synchronized (logLock) {
+            flushPolicy = Objects.requireNonNull(policy, "FlushPolicy cannot be null");
+            if (logFile != null) {
+                logFile.setPolicy(policy);
+            }
+            if (rollingFile != null) {
+                rollingFile.setPolicy(policy);
+            }
+            if (binaryLog != null) {
+                binaryLog.setPolicy(policy);
+            }
+        }
+    }
+
+    /**
+     * Sets when log file output is forced to the storage device. The default
+     * {@link DurabilityPolicy#osBuffered()} never forces; the flush policy
+     * still decides when output reaches the operating system. Applies to the
+     * open log, rolling and binary files and to files opened later, except
+     * those given their own policy when they were opened
+     * ({@link LogFileOptions#withDurability(DurabilityPolicy)},
+     * {@link #initRolling(String, String, RollingPolicy, RetentionPolicy, DurabilityPolicy)},
+     * {@link #initBinary(String, DurabilityPolicy)}, {@link MappedFileSink}):
+     * <pre>
+     *     RELogger.setFlushPolicy(FlushPolicy.batched(64 * 1024, 200, LogLevel.ERROR));
+     *     RELogger.setDurabilityPolicy(DurabilityPolicy.periodic(1000, 8 * 1024 * 1024)
+     *             .withSyncLevel(LogLevel.FATAL));
+     * </pre>
+     *
+     * @param policy The durability policy.
+     */
+    public static void setDurabilityPolicy(DurabilityPolicy policy) {
+        synchronized (logLock) {
+            durabilityPolicy = Objects.requireNonNull(policy, "DurabilityPolicy cannot be null");
+            if (logFile != null && !logFileOwnDurability) {
+                logFile.setDurability(policy);
+            }
+            if (rollingFile != null && !rollingFileOwnDurability) {
+                rollingFile.setDurability(policy);
+            }
+            if (binaryLog != null && !binaryLogOwnDurability) {
+                binaryLog.setDurability(policy);
+            }
+        }
+    }
+
+    /**
+     * Returns the currently configured log level threshold.
+     *
+     * @return The current log level.
+     */
+    public static LogLevel getLevel() {
+        synchronized (logLock) {
+            return currentLevel;
+        }
+    }
+
+    /**
+     * Returns how many events of the given level the asynchronous mode has
+     * dropped since {@link #initAsync(String, int, BackpressurePolicy)}.
+     *
+     * @param level The level to query.
+     * @return The dropped event count, or 0 when logging synchronously.
+     */
+    public static long getDroppedCount(LogLevel level) {
+        AsyncLogWriter writer = asyncWriter;
+        return writer != null ? writer.droppedCount(level) : 0;
+    }
+
+    /**
+     * Returns how many events of the given level had to wait for space in
+     * the asynchronous buffer since {@link #initAsync(String, int, BackpressurePolicy)}.
+     *
+     * @param level The level to query.
+     * @return The blocked event count, or 0 when logging synchronously.
+     */
+    public static long getBlockedCount(LogLevel level) {
+        AsyncLogWriter writer = asyncWriter;
+        return writer != null ? writer.blockedCount(level) : 0;
+    }
+
+    /**
+     * Logs a message to the console and optionally to a log file.
+     * Includes contextual metadata such as file name, line number, and method name.
+     *
+     * @param level   The severity level of the log.
+     * @param message The log message content.
+     */
+    public static void log(LogLevel level, String message, boolean DEBUG) {
+        if (DEBUG && level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, message);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message, replacing {@code {}} with the argument.
+     * The message is only formatted if the level is enabled, and on the
+     * writer thread in asynchronous mode.
+     * <p>
+     * A single {@code boolean} argument selects {@link #log(LogLevel, String, boolean)}
+     * instead; pass it boxed ({@code Boolean.valueOf(flag)}) to format it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogLevel level, String template, Object arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(1, arg, null, null);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     */
+    public static void log(LogLevel level, String template, Object arg1, Object arg2) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(2, arg1, arg2, null);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with three arguments.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     * @param arg3     The third argument.
+     */
+    public static void log(LogLevel level, String template, Object arg1, Object arg2, Object arg3) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(3, arg1, arg2, arg3);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with any number of arguments. The array is
+     * referenced, not copied, and must not be modified after the call.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param args     The arguments.
+     */
+    public static void log(LogLevel level, String template, Object... args) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(args != null ? args : new Object[0]);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one long argument, without boxing it.
+     * {@code int}, {@code short} and {@code byte} arguments widen to this overload.
+     * There is no {@code boolean} variant without a call site, as that signature
+     * is {@link #log(LogLevel, String, boolean)}.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogLevel level, String template, long arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_LONG, arg);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one double argument, without boxing it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogLevel level, String template, double arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_DOUBLE, Double.doubleToRawLongBits(arg));
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one float argument, without boxing it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogLevel level, String template, float arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_FLOAT, Float.floatToRawIntBits(arg));
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one char argument, without boxing it.
+     *
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogLevel level, String template, char arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtCaller(level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_CHAR, arg);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built by a supplier, which is only called if the level
+     * is enabled. The supplier runs on the calling thread, also in
+     * asynchronous mode; exceptions it throws propagate to the caller.
+     *
+     * @param level    The severity level of the log.
+     * @param supplier Builds the log message content.
+     */
+    public static void log(LogLevel level, Supplier<String> supplier) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            String message = supplier.get();
+            LogEvent event = claimAtCaller(level, message);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built from {@code state} by a function, which is only
+     * called if the level is enabled. Passing the state explicitly lets the
+     * function be a non-capturing lambda or method reference, which is a
+     * constant, so a disabled call allocates nothing:
+     * <pre>
+     *     RELogger.log(LogLevel.DEBUG, request, r -&gt; "Headers: " + r.dumpHeaders());
+     * </pre>
+     *
+     * @param level     The severity level of the log.
+     * @param state     The value the message is built from.
+     * @param formatter Builds the log message content from {@code state}.
+     * @param <T>       Type of the state.
+     */
+    public static <T> void log(LogLevel level, T state, Function<? super T, String> formatter) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            String message = formatter.apply(state);
+            LogEvent event = claimAtCaller(level, message);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message with an explicitly supplied call site, like the C/C++
+     * version's {@code __FILE__}/{@code __LINE__}/{@code __func__} parameters.
+     * {@link RELoggerAgent} rewrites calls of {@link #log(LogLevel, String, boolean)}
+     * to this overload with constant arguments, so no stack walk is needed.
+     *
+     * @param level   The severity level of the log.
+     * @param message The log message content.
+     * @param DEBUG   Whether logging is enabled for this call.
+     * @param file    Source file of the call site.
+     * @param line    Source line of the call site.
+     * @param func    Method name of the call site.
+     */
+    public static void log(LogLevel level, String message, boolean DEBUG, String file, int line, String func) {
+        if (DEBUG && level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimEvent(level, currentLevel, null, file, line, func, message);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Creates a precomputed call-site handle. Intended for static final
+     * fields: the file name and line of the declaring statement are resolved
+     * once, and logging through the handle never walks the stack.
+     *
+     * @param owner      Class containing the call site.
+     * @param methodName Method name to report for the call site.
+     * @return The resolved call-site handle.
+     */
+    public static LogSite site(Class<?> owner, String methodName) {
+        return LogSite.resolve(owner, methodName, STACK_WALKER);
+    }
+
+    /**
+     * Creates a call-site handle from explicitly supplied location data.
+     * {@link RELoggerAgent} creates one per rewritten call site, once, and
+     * logs through it.
+     *
+     * @param file Source file of the call site.
+     * @param line Source line of the call site.
+     * @param func Method name of the call site.
+     * @return The call-site handle.
+     */
+    public static LogSite site(String file, int line, String func) {
+        return new LogSite(file, line, func);
+    }
+
+    /**
+     * Logs a message at a precomputed call site. Unlike
+     * {@link #log(LogLevel, String, boolean)} this never inspects the stack,
+     * regardless of the level's {@link LocationPolicy}.
+     *
+     * @param site    The call-site handle created by {@link #site(Class, String)}.
+     * @param level   The severity level of the log.
+     * @param message The log message content.
+     */
+    public static void log(LogSite site, LogLevel level, String message) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, message);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message at a precomputed call site.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, Object arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(1, arg, null, null);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with two arguments at a precomputed call site.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, Object arg1, Object arg2) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(2, arg1, arg2, null);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with three arguments at a precomputed call site.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg1     The first argument.
+     * @param arg2     The second argument.
+     * @param arg3     The third argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, Object arg1, Object arg2, Object arg3) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(3, arg1, arg2, arg3);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with any number of arguments at a
+     * precomputed call site. The array must not be modified after the call.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param args     The arguments.
+     */
+    public static void log(LogSite site, LogLevel level, String template, Object... args) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(args != null ? args : new Object[0]);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one long argument at a precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, long arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_LONG, arg);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one double argument at a precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, double arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_DOUBLE, Double.doubleToRawLongBits(arg));
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one float argument at a precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, float arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_FLOAT, Float.floatToRawIntBits(arg));
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one char argument at a precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, char arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_CHAR, arg);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a parameterized message with one boolean argument at a precomputed call site, without boxing it.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param template The message template with {@code {}} placeholders.
+     * @param arg      The argument.
+     */
+    public static void log(LogSite site, LogLevel level, String template, boolean arg) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            LogEvent event = claimAtSite(site, level, template);
+            if (event != null) {
+                event.setArguments(1, null, null, null);
+                event.setPrimitive(0, LogEvent.KIND_BOOLEAN, arg ? 1 : 0);
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built by a supplier at a precomputed call site. The
+     * supplier is only called, on the calling thread, if the level is enabled.
+     *
+     * @param site     The call-site handle created by {@link #site(Class, String)}.
+     * @param level    The severity level of the log.
+     * @param supplier Builds the log message content.
+     */
+    public static void log(LogSite site, LogLevel level, Supplier<String> supplier) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            String message = supplier.get();
+            LogEvent event = claimAtSite(site, level, message);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Logs a message built from {@code state} by a function at a precomputed
+     * call site. The function is only called, on the calling thread, if the
+     * level is enabled.
+     *
+     * @param site      The call-site handle created by {@link #site(Class, String)}.
+     * @param level     The severity level of the log.
+     * @param state     The value the message is built from.
+     * @param formatter Builds the log message content from {@code state}.
+     * @param <T>       Type of the state.
+     */
+    public static <T> void log(LogSite site, LogLevel level, T state, Function<? super T, String> formatter) {
+        if (level.getOrdinal() >= captureLevel.getOrdinal()) {
+            String message = formatter.apply(state);
+            LogEvent event = claimAtSite(site, level, message);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Starts a record with structured fields at the given level, e.g.
+     * {@code RELogger.at(LogLevel.INFO).with("userId", id).log("served")}.
+     * If the level is disabled a shared no-op builder is returned, so the
+     * chain costs no more than the level check.
+     *
+     * @param level The severity level of the record.
+     * @return The builder; finish it with one of its {@code log} methods.
+     */
+    public static LogBuilder at(LogLevel level) {
+        if (level.getOrdinal() < captureLevel.getOrdinal()) {
+            return LogBuilder.NOOP;
+        }
+        return LogBuilder.acquire(level, currentLevel, null);
+    }
+
+    /**
+     * Starts a record with structured fields at a precomputed call site.
+     *
+     * @param site  The call-site handle.
+     * @param level The severity level of the record.
+     * @return The builder; finish it with one of its {@code log} methods.
+     * @see #at(LogLevel)
+     */
+    public static LogBuilder at(LogSite site, LogLevel level) {
+        if (level.getOrdinal() < captureLevel.getOrdinal()) {
+            return LogBuilder.NOOP;
+        }
+        return LogBuilder.acquire(level, currentLevel, Objects.requireNonNull(site, "LogSite cannot be null"));
+    }
+
+    /**
+     * Starts a TRACE record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public static LogBuilder atTrace() {
+        return at(LogLevel.TRACE);
+    }
+
+    /**
+     * Starts a DEBUG record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public static LogBuilder atDebug() {
+        return at(LogLevel.DEBUG);
+    }
+
+    /**
+     * Starts an INFO record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public static LogBuilder atInfo() {
+        return at(LogLevel.INFO);
+    }
+
+    /**
+     * Starts a WARN record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public static LogBuilder atWarn() {
+        return at(LogLevel.WARN);
+    }
+
+    /**
+     * Starts an ERROR record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public static LogBuilder atError() {
+        return at(LogLevel.ERROR);
+    }
+
+    /**
+     * Starts a FATAL record with structured fields.
+     *
+     * @return The builder.
+     * @see #at(LogLevel)
+     */
+    public static LogBuilder atFatal() {
+        return at(LogLevel.FATAL);
+    }
+
+    /**
+     * Publishes a record finished by a {@link LogBuilder}. The level was
+     * checked when the builder was obtained.
+     *
+     * @param level     The severity level of the record.
+     * @param threshold Level of the logger the record comes from.
+     * @param site      Precomputed call site, or null to capture the caller.
+     * @param message   The message or template.
+     * @param argCount  Number of template arguments, 0 for a plain message.
+     * @param arg1      The first argument.
+     * @param arg2      The second argument.
+     * @param fields    The builder holding the fields.
+     */
+    static void logBuilt(LogLevel level, LogLevel threshold, LogSite site, String message, int argCount,
+                         Object arg1, Object arg2, LogBuilder fields) {
+        LogEvent event = site != null
+                ? claimEvent(level, threshold, Objects.requireNonNull(site, "LogSite cannot be null"), null, -1,
+                        null, message)
+                : claimAtCaller(level, threshold, message);
+        if (event != null) {
+            if (argCount > 0) {
+                event.setArguments(argCount, arg1, arg2, null);
+            }
+            fields.copyTo(event);
+            publish(event);
+        }
+    }
+
+    /**
+     * Captures the caller's location as far as the level's policy asks for
+     * and claims an event for the record.
+     *
+     * @param level   The severity level of the log.
+     * @param message The message or template.
+     * @return The event to fill and {@link #publish}, or null if it was dropped.
+     */
+    private static LogEvent claimAtCaller(LogLevel level, String message) {
+        return claimAtCaller(level, currentLevel, message);
+    }
+
+    /**
+     * Captures the caller's location and claims an event for a record of a
+     * logger whose level may differ from {@link #currentLevel}.
+     *
+     * @param level     The severity level of the log.
+     * @param threshold Level of the logger; records below it are only
+     *                  captured for the flight recorder.
+     * @param message   The message or template.
+     * @return The event to fill and {@link #publish}, or null if it was dropped.
+     */
+    static LogEvent claimAtCaller(LogLevel level, LogLevel threshold, String message) {
+        String file = null;
+        int line = -1;
+        String func = null;
+        LocationPolicy policy = locationPolicies[level.getOrdinal()];
+        if (policy != LocationPolicy.NONE) {
+            StackWalker.StackFrame caller = STACK_WALKER.walk(FIND_CALLER);
+            if (caller != null) {
+                if (policy == LocationPolicy.FULL) {
+                    file = caller.getFileName() != null ? caller.getFileName() : "Unknown";
+                    line = caller.getLineNumber();
+                    func = caller.getMethodName();
+                } else {
+                    file = caller.getClassName();
+                }
+            }
+        }
+        return claimEvent(level, threshold, null, file, line, func, message);
+    }
+
+    /**
+     * Claims an event for a record at a precomputed call site.
+     *
+     * @param site    The call-site handle.
+     * @param level   The severity level of the log.
+     * @param message The message or template.
+     * @return The event to fill and {@link #publish}, or null if it was dropped.
+     */
+    private static LogEvent claimAtSite(LogSite site, LogLevel level, String message) {
+        return claimAtSite(site, level, currentLevel, message);
+    }
+
+    /**
+     * Claims an event for a record at a precomputed call site of a logger
+     * whose level may differ from {@link #currentLevel}.
+     *
+     * @param site      The call-site handle.
+     * @param level     The severity level of the log.
+     * @param threshold Level of the logger; records below it are only
+     *                  captured for the flight recorder.
+     * @param message   The message or template.
+     * @return The event to fill and {@link #publish}, or null if it was dropped.
+     */
+    static LogEvent claimAtSite(LogSite site, LogLevel level, LogLevel threshold, String message) {
+        return claimEvent(level, threshold, Objects.requireNonNull(site, "LogSite cannot be null"), null, -1,
+                null, message);
+    }
+
+    /**
+     * Claims an event for a captured record: a slot of the asynchronous
+     * writer, or the calling thread's reusable event in synchronous mode and
+     * for records below the threshold. The caller may add arguments and must
+     * then call {@link #publish}.
+     *
+     * @param level     The severity level of the log.
+     * @param threshold Level of the logger; records below it are only
+     *                  captured for the flight recorder.
+     * @param site      Precomputed call site, or null.
+     * @param file      Source file or class of the call site, or null.
+     * @param line      Source line of the call site, or -1.
+     * @param func      Method name of the call site, or null.
+     * @param message   The message or template.
+     * @return The event to fill, or null if the backpressure policy dropped it.
+     */
+    private static LogEvent claimEvent(LogLevel level, LogLevel threshold, LogSite site, String file, int line,
+                                       String func, String message) {
+        long timestamp = currentTimeMicros();
+        boolean recordOnly = level.getOrdinal() < threshold.getOrdinal();
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null && !recordOnly) {
+            long sequence = writer.claim(level);
+            if (sequence == AsyncLogWriter.DROPPED) {
+                return null;
+            }
+            if (sequence >= 0) {
+                LogEvent event = writer.slot(sequence);
+                event.set(level, timestamp, site, file, line, func, Thread.currentThread().getName(), message);
+                event.writer = writer;
+                event.sequence = sequence;
+                return event;
+            }
+        }
+        LogEvent event = SYNC_EVENT.get();
+        if (event.level != null) {
+            // Logging from an argument's toString() while this thread's event is being written
+            event = new LogEvent();
+        }
+        event.set(level, timestamp, site, file, line, func, Thread.currentThread().getName(), message);
+        event.recordOnly = recordOnly;
+        return event;
+    }
+
+    /**
+     * Hands a filled event to the asynchronous writer, or writes it directly
+     * in synchronous mode.
+     *
+     * @param event An event returned by {@link #claimEvent}.
+     */
+    static void publish(LogEvent event) {
+        AsyncLogWriter writer = event.writer;
+        if (writer != null) {
+            writer.commit(event.sequence);
+            return;
+        }
+        try {
+            writeEvent(event, true);
+        } finally {
+            event.clear();
+        }
+    }
+
+    /**
+     * Encodes a record into the binary log, if any, then formats it once
+     * into the calling thread's buffer and hands the same bytes to every
+     * text sink and the flight recorder. Called directly by {@code log} in
+     * synchronous mode and by the writer thread in asynchronous mode.
+     * Records below the level, captured only for the flight recorder, are
+     * recorded and go nowhere else.
+     *
+     * @param event The record to write.
+     * @param flush Whether to end the batch after this line; the asynchronous
+     *              writer passes {@code false} and ends it once per drained batch.
+     */
+    static void writeEvent(LogEvent event, boolean flush) {
+        FlightRecorder recorder = flightRecorder;
+        if (recorder != null && event.level.getOrdinal() < recorder.getLevel().getOrdinal()) {
+            recorder = null;
+        }
+        boolean recordOnly = event.recordOnly;
+        if (recordOnly && recorder == null) {
+            return;
+        }
+        if (binaryLog != null && !recordOnly) {
+            synchronized (logLock) {
+                BinaryLogWriter binary = binaryLog;
+                if (binary != null) {
+                    binary.write(event);
+                    if (flush) {
+                        binary.endBatch();
+                    }
+                    if (sinks.length == 0 && recorder == null) {
+                        // Nothing needs text
+                        return;
+                    }
+                }
+            }
+        }
+        LogBuffer buffer = LINE_BUFFER.get();
+        if (buffer.length() != 0) {
+            // Logging from an argument's toString() while this thread's buffer is in use
+            buffer = new LogBuffer();
+        }
+        try {
+            layout.format(event, buffer);
+            if (recorder != null) {
+                recorder.record(buffer.array(), 0, buffer.length());
+                if (recordOnly) {
+                    return;
+                }
+            }
+            synchronized (logLock) {
+                for (LogSink sink : sinks) {
+                    sink.write(event.level, event.timestampMicros / 1000, buffer.array(), 0, buffer.length());
+                    if (flush) {
+                        sink.endBatch();
+                    }
+                }
+            }
+        } finally {
+            buffer.reset();
+        }
+        if (recorder != null && event.level == LogLevel.FATAL) {
+            recorder.dumpQuietly("FATAL record");
+        }
+    }
+
+    /**
+     * Ends the current batch on every sink, flushing whatever is due. Used by
+     * the asynchronous writer once per drained batch.
+     */
+    static void flushOutput() {
+        synchronized (logLock) {
+            if (binaryLog != null) {
+                binaryLog.endBatch();
+            }
+            for (LogSink sink : sinks) {
+                sink.endBatch();
             }
         }
     }
@@ -0,0 +1,160 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: RELoggerAgent.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Java agent and offline build step that give RELogger call sites constant
+ * location metadata. Calls of the log, at and at<Level> methods of RELogger
+ * and Logger are rewritten to pass their file name, line number and method
+ * name as constants, so no stack walk is needed at runtime.
+ * Agent Usage (jar manifest must contain "Premain-Class: RELogger.RELoggerAgent"):
+ *     java -javaagent:relogger.jar -jar app.jar
+ * Offline Usage (rewrites class files in place):
+ *     java -cp relogger.jar RELogger.RELoggerAgent build/classes
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.ProtectionDomain;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Entry points of the call-site rewriting agent.
+ * <p>
+ * Rewritten calls:
+ * <ul>
+ *     <li>{@code RELogger.log(level, message, DEBUG)}, to the
+ *         {@code log(level, message, DEBUG, file, line, func)} overload;</li>
+ *     <li>every other {@code log(LogLevel, ...)} overload of {@link RELogger}
+ *         and {@link Logger}, plus their {@code at(LogLevel)} and
+ *         {@code atTrace()}..{@code atFatal()} methods, to the overload taking
+ *         a {@link LogSite} first, with one site per call site created on first
+ *         use.</li>
+ * </ul>
+ * {@link LogBuilder}'s {@code log} methods use the site of the {@code at}
+ * call that started the record. Calls through method references, reflection
+ * or the library's own classes are not rewritten and keep walking the stack.
+ * Rewritten calls always report their full location, whatever the level's
+ * {@link LocationPolicy}.
+ */
+public final class RELoggerAgent implements ClassFileTransformer {
+
+    /** Call sites rewritten by the agent since startup. */
+    private static final AtomicInteger rewrittenCallSites = new AtomicInteger();
+
+    /** Classes containing at least one rewritten call site. */
+    private static final AtomicInteger rewrittenClasses = new AtomicInteger();
+
+    private RELoggerAgent() {
+    }
+
+    /**
+     * Installs the transformer before the application's main method runs and
+     * reports the rewritten call sites when the JVM exits.
+     *
+     * @param agentArgs       Ignored.
+     * @param instrumentation The instrumentation instance provided by the JVM.
+     */
+    public static void premain(String agentArgs, Instrumentation instrumentation) {
+        instrumentation.addTransformer(new RELoggerAgent());
+        System.err.println("[LOGGER] Call-site agent installed");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println(
+                "[LOGGER] Call-site agent rewrote " + rewrittenCallSites.get() + " call sites in "
+                        + rewrittenClasses.get() + " classes"), "RELogger-AgentReport"));
+    }
+
+    /**
+     * Installs the transformer into a running JVM. Only classes loaded after
+     * attaching are rewritten.
+     *
+     * @param agentArgs       Ignored.
+     * @param instrumentation The instrumentation instance provided by the JVM.
+     */
+    public static void agentmain(String agentArgs, Instrumentation instrumentation) {
+        premain(agentArgs, instrumentation);
+    }
+
+    /**
+     * Returns how many call sites the agent has rewritten so far.
+     *
+     * @return The rewritten call-site count.
+     */
+    public static int getRewrittenCallSites() {
+        return rewrittenCallSites.get();
+    }
+
+    /**
+     * Rewrites a class while it is being loaded.
+     */
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (loader == null || classBeingRedefined != null) {
+            return null;
+        }
+        try {
+            CallSiteRewriter rewriter = new CallSiteRewriter(classfileBuffer);
+            byte[] rewritten = rewriter.rewrite();
+            if (rewritten != null) {
+                rewrittenCallSites.addAndGet(rewriter.rewrittenCount());
+                rewrittenClasses.incrementAndGet();
+            }
+            return rewritten;
+        } catch (RuntimeException e) {
+            // Never break class loading; the class simply keeps its stack-walking calls
+            System.err.println("[LOGGER ERROR] Call-site agent skipped " + className + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Offline build step: rewrites every class file below the given
+     * directories in place and reports the number of rewritten call sites.
+     *
+     * @param args Directories containing compiled classes.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java RELogger.RELoggerAgent <classes-dir>...");
+            System.exit(2);
+        }
+        int sites = 0;
+        int classes = 0;
+        for (String arg : args) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(Paths.get(arg))) {
+                files = walk.filter(p -> p.toString().endsWith(".class")).collect(Collectors.toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (Path file : files) {
+                try {
+                    CallSiteRewriter rewriter = new CallSiteRewriter(Files.readAllBytes(file));
+                    byte[] rewritten = rewriter.rewrite();
+                    if (rewritten != null) {
+                        Files.write(file, rewritten);
+                        sites += rewriter.rewrittenCount();
+                        classes++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        System.out.println("[LOGGER] Rewrote " + sites + " call sites in " + classes + " classes");
+    }
+}
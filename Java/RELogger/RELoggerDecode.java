@@ -0,0 +1,349 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: RELoggerDecode.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Offline decoder for binary logs written by RELogger.initBinary. Rebuilds
+ * every record and formats it with the same layout code the logger uses,
+ * so the output is byte-for-byte the text log the application would have
+ * written.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Command-line decoder of binary log files.
+ * <pre>
+ *     java -cp relogger.jar RELogger.RELoggerDecode [-p pattern | -json] file...
+ * </pre>
+ * Without options the default layout is used. Timestamps are rendered in the
+ * decoder's time zone.
+ */
+public final class RELoggerDecode {
+
+    /** Platform line separator, as written after every line of a text log. */
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /** Levels by ordinal. */
+    private static final LogLevel[] LEVELS = new LogLevel[LogLevel.values().length];
+
+    static {
+        for (LogLevel level : LogLevel.values()) {
+            LEVELS[level.getOrdinal()] = level;
+        }
+    }
+
+    /**
+     * A dictionary entry as read from the file.
+     */
+    private static final class Entry {
+        final LogLevel level;
+        final LogSite site;
+        final String file;
+        final int line;
+        final String function;
+        final String template;
+
+        Entry(LogLevel level, LogSite site, String file, int line, String function, String template) {
+            this.level = level;
+            this.site = site;
+            this.file = file;
+            this.line = line;
+            this.function = function;
+            this.template = template;
+        }
+    }
+
+    private RELoggerDecode() {
+    }
+
+    /**
+     * Decodes the given files to standard output.
+     *
+     * @param args {@code [-p pattern | -json] file...}
+     */
+    public static void main(String[] args) {
+        LogLayout layout = PatternLayout.defaultLayout();
+        int first = 0;
+        try {
+            if (args.length >= 2 && args[0].equals("-p")) {
+                layout = PatternLayout.compile(args[1]);
+                first = 2;
+            } else if (args.length >= 1 && args[0].equals("-json")) {
+                layout = JsonLayout.create();
+                first = 1;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("RELoggerDecode: " + e.getMessage());
+            System.exit(2);
+        }
+        if (first == args.length) {
+            System.err.println("Usage: RELoggerDecode [-p pattern | -json] file...");
+            System.exit(2);
+        }
+        OutputStream out = new BufferedOutputStream(System.out, 1 << 16);
+        try {
+            for (String path : Arrays.copyOfRange(args, first, args.length)) {
+                try (InputStream in = new FileInputStream(path)) {
+                    decode(in, layout, out);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            try {
+                out.flush();
+            } catch (IOException ignored) {
+                // Reporting the original failure matters more
+            }
+            System.err.println("RELoggerDecode: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Decodes one binary log, writing one line per record.
+     *
+     * @param in     The binary log, positioned at its header.
+     * @param layout Layout to format the records with.
+     * @param out    Where to write the UTF-8 lines.
+     * @throws IOException If reading or writing fails, or the input is not a
+     *                     binary log or is truncated.
+     */
+    public static void decode(InputStream in, LogLayout layout, OutputStream out) throws IOException {
+        Objects.requireNonNull(layout, "LogLayout cannot be null");
+        InputStream input = in instanceof BufferedInputStream ? in : new BufferedInputStream(in, 1 << 16);
+        byte[] magic = input.readNBytes(BinaryLogWriter.MAGIC.length);
+        if (!Arrays.equals(magic, BinaryLogWriter.MAGIC)) {
+            throw new IOException("Not a RELogger binary log");
+        }
+        int version = input.read();
+        if (version < 1 || version > BinaryLogWriter.VERSION) {
+            throw new IOException("Unsupported binary log version " + version);
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        long timestampMicros = 0;
+        LogEvent event = new LogEvent();
+        LogBuffer line = new LogBuffer();
+        int first;
+        while ((first = input.read()) >= 0) {
+            long header = readVarLong(input, first);
+            if ((header & 1) != 0) {
+                switch ((int) (header >>> 1)) {
+                    case BinaryLogWriter.RECORD_ENTRY -> {
+                        if (readVarLong(input) != entries.size()) {
+                            throw new IOException("Corrupt binary log: unexpected entry ID");
+                        }
+                        int ordinal = readByte(input);
+                        if (ordinal >= LEVELS.length) {
+                            throw new IOException("Corrupt binary log: unknown level " + ordinal);
+                        }
+                        LogLevel level = LEVELS[ordinal];
+                        int flags = readByte(input);
+                        String file = readString(input);
+                        int lineNumber = (int) readSigned(input);
+                        String function = readString(input);
+                        String template = readString(input);
+                        LogSite site = (flags & BinaryLogWriter.FLAG_SITE) != 0
+                                ? new LogSite(file, lineNumber, function) : null;
+                        entries.add(new Entry(level, site, file, lineNumber, function, template));
+                    }
+                    case BinaryLogWriter.RECORD_THREAD -> {
+                        if (readVarLong(input) != threads.size()) {
+                            throw new IOException("Corrupt binary log: unexpected thread ID");
+                        }
+                        threads.add(readString(input));
+                    }
+                    case BinaryLogWriter.RECORD_KEY -> {
+                        if (readVarLong(input) != keys.size()) {
+                            throw new IOException("Corrupt binary log: unexpected key ID");
+                        }
+                        keys.add(readString(input));
+                    }
+                    case BinaryLogWriter.RECORD_RESET -> {
+                        entries.clear();
+                        threads.clear();
+                        keys.clear();
+                    }
+                    default -> throw new IOException("Corrupt binary log: unknown record type");
+                }
+                continue;
+            }
+
+            long entryId = version == 1 ? header >>> 1 : header >>> 2;
+            boolean hasFields = version > 1 && (header & 2) != 0;
+            if (entryId >= entries.size()) {
+                throw new IOException("Corrupt binary log: undefined entry " + entryId);
+            }
+            Entry entry = entries.get((int) entryId);
+            timestampMicros += readSigned(input);
+            long threadId = readVarLong(input);
+            if (threadId >= threads.size()) {
+                throw new IOException("Corrupt binary log: undefined thread " + threadId);
+            }
+            String thread = threads.get((int) threadId);
+            if (entry.template == null) {
+                event.set(entry.level, timestampMicros, entry.site, entry.file, entry.line, entry.function,
+                        thread, readString(input));
+            } else {
+                event.set(entry.level, timestampMicros, entry.site, entry.file, entry.line, entry.function,
+                        thread, entry.template);
+                Object[] args = new Object[(int) readVarLong(input)];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = readArgument(input);
+                }
+                event.setArguments(args);
+            }
+            if (hasFields) {
+                int count = (int) readVarLong(input);
+                for (int i = 0; i < count; i++) {
+                    long keyId = readVarLong(input);
+                    if (keyId >= keys.size()) {
+                        throw new IOException("Corrupt binary log: undefined key " + keyId);
+                    }
+                    event.addField(keys.get((int) keyId), LogEvent.KIND_OBJECT, 0, readArgument(input));
+                }
+            }
+            layout.format(event, line);
+            line.append(LINE_SEPARATOR);
+            out.write(line.array(), 0, line.length());
+            line.reset();
+        }
+    }
+
+    /**
+     * Reads one template argument as the object the text layouts render identically.
+     *
+     * @param in The input.
+     * @return The argument.
+     * @throws IOException If the input ends or is corrupt.
+     */
+    private static Object readArgument(InputStream in) throws IOException {
+        int kind = readByte(in);
+        return switch (kind) {
+            case BinaryLogWriter.ARG_NULL -> null;
+            case BinaryLogWriter.ARG_LONG -> readSigned(in);
+            case BinaryLogWriter.ARG_DOUBLE -> Double.longBitsToDouble(readFixed(in, 8));
+            case BinaryLogWriter.ARG_FLOAT -> Float.intBitsToFloat((int) readFixed(in, 4));
+            case BinaryLogWriter.ARG_FALSE -> Boolean.FALSE;
+            case BinaryLogWriter.ARG_TRUE -> Boolean.TRUE;
+            case BinaryLogWriter.ARG_CHAR -> (char) readVarLong(in);
+            case BinaryLogWriter.ARG_STRING -> readString(in);
+            default -> throw new IOException("Corrupt binary log: unknown argument kind " + kind);
+        };
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     *
+     * @param in The input.
+     * @return The string, or null.
+     * @throws IOException If the input ends.
+     */
+    private static String readString(InputStream in) throws IOException {
+        long prefix = readVarLong(in);
+        if (prefix == 0) {
+            return null;
+        }
+        int length = (int) (prefix - 1);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Truncated binary log");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a zigzag-encoded signed integer.
+     *
+     * @param in The input.
+     * @return The value.
+     * @throws IOException If the input ends.
+     */
+    private static long readSigned(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads an unsigned LEB128 integer.
+     *
+     * @param in The input.
+     * @return The value.
+     * @throws IOException If the input ends.
+     */
+    private static long readVarLong(InputStream in) throws IOException {
+        return readVarLong(in, readByte(in));
+    }
+
+    /**
+     * Reads an unsigned LEB128 integer whose first byte was already read.
+     *
+     * @param in    The input.
+     * @param first The first byte.
+     * @return The value.
+     * @throws IOException If the input ends.
+     */
+    private static long readVarLong(InputStream in, int first) throws IOException {
+        long value = first & 0x7F;
+        int b = first;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift >= 64) {
+                throw new IOException("Corrupt binary log: integer too long");
+            }
+            b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a little-endian fixed-size integer.
+     *
+     * @param in    The input.
+     * @param count Number of bytes.
+     * @return The value.
+     * @throws IOException If the input ends.
+     */
+    private static long readFixed(InputStream in, int count) throws IOException {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value |= (long) readByte(in) << (8 * i);
+        }
+        return value;
+    }
+
+    /**
+     * Reads one byte.
+     *
+     * @param in The input.
+     * @return The byte, from 0 to 255.
+     * @throws IOException If the input ends.
+     */
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated binary log");
+        }
+        return b;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: RetentionManager.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Enforces a RetentionPolicy on the finished segments of a rolling log
+ * file. The directory is listed once at startup; afterwards every finished
+ * segment is added to an in-memory index ordered from oldest to newest, so
+ * enforcing the caps never touches the file system except to delete.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Index of finished segments and the caps applied to them. Not
+ * synchronized: after construction it is only used by the rolling sink's
+ * background thread.
+ */
+final class RetentionManager {
+
+    /**
+     * A finished segment.
+     */
+    private static final class Segment {
+        final Path path;
+        final long size;
+        final long finishedMillis;
+
+        Segment(Path path, long size, long finishedMillis) {
+            this.path = path;
+            this.size = size;
+            this.finishedMillis = finishedMillis;
+        }
+    }
+
+    /** The caps. */
+    private final RetentionPolicy policy;
+
+    /** Finished segments, oldest first. */
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    /** Sum of the segment sizes. */
+    private long totalBytes;
+
+    /**
+     * Indexes the segments already in the active file's directory. The
+     * active file and its lock file are never indexed, even if their names
+     * match.
+     *
+     * @param policy     The caps.
+     * @param activeFile The active log file, whose directory holds the segments.
+     * @param names      Matches the file names of segments.
+     * @throws IOException If the directory cannot be listed.
+     */
+    RetentionManager(RetentionPolicy policy, Path activeFile, Pattern names) throws IOException {
+        this.policy = policy;
+        Path active = activeFile.toAbsolutePath();
+        String activeName = active.getFileName().toString();
+        String lockName = activeName + ".lck";
+        List<Segment> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(active.getParent())) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.equals(activeName) || name.equals(lockName)) {
+                    continue;
+                }
+                if (names.matcher(name).matches() && Files.isRegularFile(path)) {
+                    found.add(new Segment(path, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(segment -> segment.finishedMillis));
+        for (Segment segment : found) {
+            segments.addLast(segment);
+            totalBytes += segment.size;
+        }
+    }
+
+    /**
+     * Returns how often the age cap should be checked between rolls.
+     *
+     * @return The period in milliseconds, or 0 if the policy has no age cap.
+     */
+    long checkPeriodMillis() {
+        long maxAge = policy.getMaxAgeMillis();
+        return maxAge == 0 ? 0 : Math.max(1_000, Math.min(60_000, maxAge / 4));
+    }
+
+    /**
+     * Adds a segment that has just been finished.
+     *
+     * @param path The segment, after any compression.
+     */
+    void add(Path path) {
+        try {
+            long size = Files.size(path);
+            segments.addLast(new Segment(path, size, System.currentTimeMillis()));
+            totalBytes += size;
+        } catch (IOException e) {
+            System.err.println("[LOGGER ERROR] Failed to index log segment " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the oldest segments until both caps hold.
+     *
+     * @param nowMillis The current time in epoch milliseconds.
+     */
+    void enforce(long nowMillis) {
+        long maxBytes = policy.getMaxTotalBytes();
+        long maxAge = policy.getMaxAgeMillis();
+        while (!segments.isEmpty()) {
+            Segment oldest = segments.peekFirst();
+            boolean tooBig = maxBytes > 0 && totalBytes > maxBytes;
+            boolean tooOld = maxAge > 0 && nowMillis - oldest.finishedMillis > maxAge;
+            if (!tooBig && !tooOld) {
+                return;
+            }
+            segments.removeFirst();
+            totalBytes -= oldest.size;
+            try {
+                Files.delete(oldest.path);
+            } catch (NoSuchFileException e) {
+                // Already removed by someone else
+            } catch (IOException e) {
+                System.err.println("[LOGGER ERROR] Failed to delete log segment " + oldest.path
+                        + ": " + e.getMessage());
+            }
+        }
+    }
+}
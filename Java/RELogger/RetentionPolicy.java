@@ -0,0 +1,125 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: RetentionPolicy.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * How many finished segments of a rolling log file are kept: up to a total
+ * size, up to an age, or both. The oldest segments are deleted first.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Retention settings for
+ * {@link RELogger#initRolling(String, String, RollingPolicy, RetentionPolicy)}.
+ * <pre>
+ *     RetentionPolicy.maxTotalSize(10L &lt;&lt; 30)
+ *     RetentionPolicy.maxAge(Duration.ofDays(14)).withMaxTotalSize(10L &lt;&lt; 30)
+ * </pre>
+ */
+public final class RetentionPolicy {
+
+    /** Total size of finished segments to keep in bytes; 0 for no limit. */
+    private final long maxTotalBytes;
+
+    /** Age after which a finished segment is deleted in milliseconds; 0 for no limit. */
+    private final long maxAgeMillis;
+
+    private RetentionPolicy(long maxTotalBytes, long maxAgeMillis) {
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Deletes the oldest segments while the finished segments together
+     * exceed a size. The active file is not counted.
+     *
+     * @param maxTotalBytes Maximum total size in bytes.
+     * @return The size-capped policy.
+     */
+    public static RetentionPolicy maxTotalSize(long maxTotalBytes) {
+        return new RetentionPolicy(checkSize(maxTotalBytes), 0);
+    }
+
+    /**
+     * Deletes segments once they were finished longer ago than a duration.
+     *
+     * @param maxAge Maximum age of a finished segment.
+     * @return The age-capped policy.
+     */
+    public static RetentionPolicy maxAge(Duration maxAge) {
+        return new RetentionPolicy(0, checkAge(maxAge));
+    }
+
+    /**
+     * Returns a policy that additionally caps the total size of finished segments.
+     *
+     * @param maxTotalBytes Maximum total size in bytes.
+     * @return The combined policy.
+     */
+    public RetentionPolicy withMaxTotalSize(long maxTotalBytes) {
+        return new RetentionPolicy(checkSize(maxTotalBytes), maxAgeMillis);
+    }
+
+    /**
+     * Returns a policy that additionally caps the age of finished segments.
+     *
+     * @param maxAge Maximum age of a finished segment.
+     * @return The combined policy.
+     */
+    public RetentionPolicy withMaxAge(Duration maxAge) {
+        return new RetentionPolicy(maxTotalBytes, checkAge(maxAge));
+    }
+
+    /**
+     * Returns the total size limit of finished segments.
+     *
+     * @return The limit in bytes, or 0 if there is none.
+     */
+    public long getMaxTotalBytes() {
+        return maxTotalBytes;
+    }
+
+    /**
+     * Returns the age limit of finished segments.
+     *
+     * @return The limit in milliseconds, or 0 if there is none.
+     */
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    /**
+     * Validates a size limit.
+     *
+     * @param maxTotalBytes The limit.
+     * @return The limit.
+     */
+    private static long checkSize(long maxTotalBytes) {
+        if (maxTotalBytes <= 0) {
+            throw new IllegalArgumentException("Total size must be positive");
+        }
+        return maxTotalBytes;
+    }
+
+    /**
+     * Validates an age limit.
+     *
+     * @param maxAge The limit.
+     * @return The limit in milliseconds.
+     */
+    private static long checkAge(Duration maxAge) {
+        Objects.requireNonNull(maxAge, "Maximum age cannot be null");
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Maximum age must be positive");
+        }
+        return maxAge.toMillis();
+    }
+}
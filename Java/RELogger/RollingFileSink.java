@@ -0,0 +1,585 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: RollingFileSink.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Log file sink that rolls over by size or at time boundaries. The active
+ * file keeps its name; a finished segment is renamed according to a file
+ * pattern and, for patterns ending in ".gz", compressed on a background
+ * thread so rolling never waits for compression. The same thread deletes
+ * old segments when a retention policy is set.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rolling log file. File patterns are resolved next to the active file and
+ * support:
+ * <pre>
+ *     %d             start of the segment as yyyy-MM-dd
+ *     %d{pattern}    start of the segment in a DateTimeFormatter pattern
+ *     %i             index, the lowest that gives an unused name
+ *     %%             a literal percent sign
+ * </pre>
+ * e.g. {@code app-%d{yyyy-MM-dd-HH}-%i.log.gz}. A non-empty file left at the
+ * active path by a previous run is rolled on startup instead of being
+ * overwritten.
+ * <p>
+ * Like the other writers it is not synchronized; every call is made while
+ * holding the logger's lock.
+ */
+final class RollingFileSink implements LogSink {
+
+    /** Platform line separator, matching the other file sinks. */
+    private static final int LINE_SEPARATOR_LENGTH =
+            System.lineSeparator().getBytes(StandardCharsets.UTF_8).length;
+
+    /** Suffix of patterns whose segments are compressed. */
+    private static final String GZIP_SUFFIX = ".gz";
+
+    /** How often reopening a lost active file is retried. */
+    private static final long REOPEN_RETRY_MILLIS = 1_000;
+
+    /** Shortest interval between two reports of a failure to reopen. */
+    private static final long REOPEN_REPORT_MILLIS = 60_000;
+
+    /** Marker of the {@code %i} conversion in {@link #patternParts}. */
+    private static final Object INDEX = new Object();
+
+    /** Matches a run of letters in a date pattern that renders as text, such as a month or zone name. */
+    private static final String TEXT_FIELD = "[\\p{L}\\p{N}+\\-:_]+";
+
+    /**
+     * A {@code %d} conversion: its formatter and a regular expression
+     * matching exactly what the formatter can produce.
+     */
+    private static final class DatePart {
+        final DateTimeFormatter formatter;
+        final String regex;
+
+        DatePart(DateTimeFormatter formatter, String regex) {
+            this.formatter = formatter;
+            this.regex = regex;
+        }
+    }
+
+    /** The active log file. */
+    private final Path activePath;
+
+    /** File pattern: literal strings, {@link DatePart}s and {@link #INDEX}. */
+    private final List<Object> patternParts;
+
+    /** Whether the pattern contains {@code %i}. */
+    private final boolean indexed;
+
+    /** Whether finished segments are gzip-compressed. */
+    private final boolean compress;
+
+    /** When to roll. */
+    private final RollingPolicy policy;
+
+    /** Lock guarding this sink, shared with the logger. */
+    private final Object lock;
+
+    /** Lock of the active file against other processes. */
+    private final LogFileLock fileLock;
+
+    /** Deletes old segments, or null to keep all. */
+    private final RetentionManager retention;
+
+    /** Compresses and deletes finished segments; created on first use. */
+    private ScheduledExecutorService background;
+
+    /** Executor shut down by {@link #close()}, waited for by {@link #awaitClosed()}. */
+    private ScheduledExecutorService closing;
+
+    /** Current flush settings. */
+    private FlushPolicy flushPolicy;
+
+    /** Current force settings. */
+    private DurabilityPolicy durability = DurabilityPolicy.osBuffered();
+
+    /** Writer of the active file, or null after a failure to reopen it. */
+    private GroupCommitWriter current;
+
+    /** Earliest time to retry reopening the active file while {@link #current} is null. */
+    private long nextReopenMillis;
+
+    /** Earliest time to report another failure to reopen. */
+    private long nextReportMillis;
+
+    /** Lines dropped since the last report, while the active file could not be reopened. */
+    private long droppedLines;
+
+    /** Bytes written to the active file. */
+    private long segmentBytes;
+
+    /** Start of the active segment in epoch milliseconds; names the segment when it rolls. */
+    private long segmentStartMillis;
+
+    /** Time boundary at which the active segment rolls, in epoch milliseconds. */
+    private long nextRollMillis;
+
+    /**
+     * Opens the active file, rolling a non-empty leftover first.
+     *
+     * @param path        The path of the active log file.
+     * @param filePattern Name pattern of finished segments.
+     * @param policy      When to roll.
+     * @param retention   Which finished segments to keep, or null for all.
+     * @param flushPolicy When pending output is written to the file.
+     * @param lock        Lock that guards every call to this sink.
+     * @throws IOException If the file cannot be opened or locked, or its directory listed.
+     * @throws IllegalArgumentException If the pattern is malformed, or lacks
+     *         {@code %i} while the policy rolls by size.
+     */
+    RollingFileSink(String path, String filePattern, RollingPolicy policy, RetentionPolicy retention,
+                    FlushPolicy flushPolicy, Object lock) throws IOException {
+        this.activePath = Paths.get(path);
+        this.patternParts = parse(filePattern);
+        this.indexed = patternParts.contains(INDEX);
+        this.compress = filePattern.endsWith(GZIP_SUFFIX);
+        this.policy = policy;
+        this.flushPolicy = flushPolicy;
+        this.lock = lock;
+        if (policy.getMaxBytes() > 0 && !indexed) {
+            throw new IllegalArgumentException("Size-based rolling needs %i in the file pattern: " + filePattern);
+        }
+        this.fileLock = LogFileLock.acquire(activePath);
+        try {
+            // Listed before a leftover active file is rolled; that segment is indexed by finish()
+            this.retention = retention == null ? null : new RetentionManager(retention, activePath,
+                    segmentNames());
+            if (Files.exists(activePath) && Files.size(activePath) > 0) {
+                finish(Files.getLastModifiedTime(activePath).toMillis());
+            }
+            current = new GroupCommitWriter(path, flushPolicy, lock);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        startSegment(System.currentTimeMillis());
+        if (this.retention != null) {
+            RetentionManager manager = this.retention;
+            background().execute(() -> manager.enforce(System.currentTimeMillis()));
+            long period = manager.checkPeriodMillis();
+            if (period > 0) {
+                background().scheduleWithFixedDelay(() -> manager.enforce(System.currentTimeMillis()),
+                        period, period, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Writes one line, rolling first if it crosses a time boundary or would
+     * exceed the size limit. While the active file could not be reopened,
+     * reopening is retried every second and lines are dropped meanwhile.
+     */
+    @Override
+    public void write(LogLevel level, long timestampMillis, byte[] line, int offset, int length) {
+        long size = length + LINE_SEPARATOR_LENGTH;
+        if (timestampMillis >= nextRollMillis) {
+            roll(timestampMillis);
+        } else if (policy.getMaxBytes() > 0 && segmentBytes > 0 && segmentBytes + size > policy.getMaxBytes()) {
+            roll(timestampMillis);
+        } else if (current == null && timestampMillis >= nextReopenMillis) {
+            reopen(timestampMillis);
+        }
+        if (current != null) {
+            current.write(level, timestampMillis, line, offset, length);
+            segmentBytes += size;
+        } else {
+            droppedLines++;
+        }
+    }
+
+    @Override
+    public void endBatch() {
+        if (current != null) {
+            current.endBatch();
+        }
+    }
+
+    /**
+     * Replaces the flush settings of this and later segments.
+     *
+     * @param policy The new flush policy.
+     */
+    void setPolicy(FlushPolicy policy) {
+        this.flushPolicy = policy;
+        if (current != null) {
+            current.setPolicy(policy);
+        }
+    }
+
+    /**
+     * Replaces the force settings of this and later segments.
+     *
+     * @param durability The new durability policy.
+     */
+    void setDurability(DurabilityPolicy durability) {
+        this.durability = durability;
+        if (current != null) {
+            current.setDurability(durability);
+        }
+    }
+
+    /**
+     * Closes the active file and releases the lock. Pending compressions and
+     * deletions still run; {@link #awaitClosed()} waits for them without
+     * the logger's lock, so logging threads are not held up meanwhile.
+     */
+    @Override
+    public void close() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        if (background != null) {
+            // Periodic age checks are cancelled; queued segments are still finished
+            background.shutdown();
+            closing = background;
+            background = null;
+        }
+        fileLock.release();
+    }
+
+    /**
+     * Waits up to a minute for the compressions and deletions queued before
+     * {@link #close()}. Must be called after close, without holding the
+     * logger's lock.
+     */
+    void awaitClosed() {
+        ScheduledExecutorService executor = closing;
+        if (executor == null) {
+            return;
+        }
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println("[LOGGER ERROR] Gave up waiting for log compression");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Finishes the active segment, if there is one, and starts a new one.
+     *
+     * @param startMillis Start of the new segment in epoch milliseconds.
+     */
+    private void roll(long startMillis) {
+        if (current != null) {
+            current.close();
+            current = null;
+            finish(segmentStartMillis);
+        }
+        reopen(startMillis);
+        startSegment(startMillis);
+    }
+
+    /**
+     * Opens a new active file. A failure is reported at most once a minute,
+     * with the number of lines lost since the previous report, and retried
+     * by {@link #write} a second later.
+     *
+     * @param nowMillis Current time in epoch milliseconds.
+     */
+    private void reopen(long nowMillis) {
+        try {
+            current = new GroupCommitWriter(activePath.toString(), flushPolicy, lock);
+            current.setDurability(durability);
+            if (droppedLines > 0) {
+                System.err.println("[LOGGER WARNING] Reopened rolling log file " + activePath + " after dropping "
+                        + droppedLines + " lines");
+                droppedLines = 0;
+            }
+            nextReportMillis = 0;
+        } catch (IOException e) {
+            nextReopenMillis = nowMillis + REOPEN_RETRY_MILLIS;
+            if (nowMillis >= nextReportMillis) {
+                System.err.println("[LOGGER ERROR] Failed to reopen rolling log file: " + e.getMessage()
+                        + (droppedLines > 0 ? " (" + droppedLines + " lines dropped so far)" : ""));
+                nextReportMillis = nowMillis + REOPEN_REPORT_MILLIS;
+            }
+        }
+    }
+
+    /**
+     * Resets the segment bookkeeping.
+     *
+     * @param startMillis Start of the segment in epoch milliseconds.
+     */
+    private void startSegment(long startMillis) {
+        segmentBytes = 0;
+        segmentStartMillis = startMillis;
+        nextRollMillis = policy.nextBoundary(startMillis);
+    }
+
+    /**
+     * Renames the closed active file to its segment name and queues its
+     * compression and the retention check.
+     *
+     * @param startMillis Start of the segment, used for {@code %d}.
+     */
+    private void finish(long startMillis) {
+        Path target = segmentPath(startMillis);
+        try {
+            Files.move(activePath, target);
+        } catch (IOException e) {
+            System.err.println("[LOGGER ERROR] Failed to roll log file to " + target + ": " + e.getMessage());
+            return;
+        }
+        if (compress || retention != null) {
+            background().execute(() -> {
+                Path segment = compress ? gzip(target) : target;
+                if (retention != null) {
+                    retention.add(segment);
+                    retention.enforce(System.currentTimeMillis());
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the background thread's executor, creating it on first use.
+     *
+     * @return The executor.
+     */
+    private ScheduledExecutorService background() {
+        if (background == null) {
+            background = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "RELogger-Roller");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return background;
+    }
+
+    /**
+     * Builds a pattern matching every name {@link #segmentPath(long)} can
+     * produce, compressed or not, so segments of earlier runs are found.
+     *
+     * @return The pattern.
+     */
+    private Pattern segmentNames() {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < patternParts.size(); i++) {
+            Object part = patternParts.get(i);
+            if (part == INDEX) {
+                regex.append("\\d+");
+            } else if (part instanceof DatePart) {
+                regex.append(((DatePart) part).regex);
+            } else {
+                String literal = (String) part;
+                if (compress && i == patternParts.size() - 1) {
+                    literal = literal.substring(0, literal.length() - GZIP_SUFFIX.length());
+                }
+                regex.append(Pattern.quote(literal));
+            }
+        }
+        return Pattern.compile(regex.append("(\\.\\d+)?(\\.gz)?").toString());
+    }
+
+    /**
+     * Returns an unused path for a finished segment, without the
+     * {@code .gz} suffix if it will be compressed.
+     *
+     * @param startMillis Start of the segment.
+     * @return The path.
+     */
+    private Path segmentPath(long startMillis) {
+        for (int index = 1; ; index++) {
+            String name = resolve(startMillis, index);
+            if (compress) {
+                name = name.substring(0, name.length() - GZIP_SUFFIX.length());
+            }
+            if (!indexed && index > 1) {
+                name = name + "." + (index - 1);
+            }
+            Path path = activePath.resolveSibling(name);
+            if (!Files.exists(path) && !Files.exists(activePath.resolveSibling(name + GZIP_SUFFIX))) {
+                return path;
+            }
+        }
+    }
+
+    /**
+     * Expands the file pattern.
+     *
+     * @param startMillis Value of {@code %d}.
+     * @param index       Value of {@code %i}.
+     * @return The file name.
+     */
+    private String resolve(long startMillis, int index) {
+        StringBuilder name = new StringBuilder();
+        for (Object part : patternParts) {
+            if (part == INDEX) {
+                name.append(index);
+            } else if (part instanceof DatePart) {
+                ((DatePart) part).formatter.formatTo(Instant.ofEpochMilli(startMillis), name);
+            } else {
+                name.append((String) part);
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     * Compresses a finished segment to {@code <name>.gz} and deletes it. The
+     * archive is written under a temporary name first, so an interrupted
+     * compression never leaves a truncated archive.
+     *
+     * @param source The finished segment.
+     * @return The archive, or the source if compression failed.
+     */
+    private static Path gzip(Path source) {
+        Path target = source.resolveSibling(source.getFileName() + GZIP_SUFFIX);
+        Path temp = source.resolveSibling(source.getFileName() + GZIP_SUFFIX + ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                Files.copy(source, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(source);
+            return target;
+        } catch (IOException e) {
+            System.err.println("[LOGGER ERROR] Failed to compress " + source + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // The uncompressed segment is still intact
+            }
+            return source;
+        }
+    }
+
+    /**
+     * Splits a file pattern into literals, {@link DatePart}s and {@link #INDEX}.
+     *
+     * @param pattern The file pattern.
+     * @return The parts.
+     * @throws IllegalArgumentException If the pattern is malformed or has neither {@code %d} nor {@code %i}.
+     */
+    private static List<Object> parse(String pattern) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean variable = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i++);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            char name = i < pattern.length() ? pattern.charAt(i++) : 0;
+            if (name == '%') {
+                literal.append('%');
+                continue;
+            }
+            if (literal.length() > 0) {
+                parts.add(literal.toString());
+                literal.setLength(0);
+            }
+            if (name == 'i') {
+                parts.add(INDEX);
+            } else if (name == 'd') {
+                String format = "yyyy-MM-dd";
+                if (i < pattern.length() && pattern.charAt(i) == '{') {
+                    int close = pattern.indexOf('}', i);
+                    if (close < 0) {
+                        throw new IllegalArgumentException("Unterminated option at index " + i + ": " + pattern);
+                    }
+                    format = pattern.substring(i + 1, close);
+                    i = close + 1;
+                }
+                parts.add(new DatePart(DateTimeFormatter.ofPattern(format).withZone(ZoneId.systemDefault()),
+                        dateRegex(format)));
+            } else {
+                throw new IllegalArgumentException("Unknown conversion at index " + (i - 2) + ": " + pattern);
+            }
+            variable = true;
+        }
+        if (literal.length() > 0) {
+            parts.add(literal.toString());
+        }
+        if (!variable) {
+            throw new IllegalArgumentException("File pattern needs %d or %i: " + pattern);
+        }
+        return parts;
+    }
+
+    /**
+     * Translates a {@link DateTimeFormatter} pattern into a regular
+     * expression for the names it produces: numeric fields become digit
+     * classes of their width, text fields runs of letters and digits,
+     * quoted and other characters literals, and optional sections optional
+     * groups. Only segment names can match, never arbitrary files.
+     *
+     * @param format The formatter pattern.
+     * @return The regular expression.
+     */
+    private static String dateRegex(String format) {
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+        while (i < format.length()) {
+            char c = format.charAt(i);
+            if (c == '\'') {
+                int close = format.indexOf('\'', i + 1);
+                if (close < 0) {
+                    close = format.length();
+                }
+                String quoted = close == i + 1 ? "'" : format.substring(i + 1, close);
+                regex.append(Pattern.quote(quoted));
+                i = close + 1;
+                continue;
+            }
+            if (c == '[' || c == ']') {
+                regex.append(c == '[' ? "(?:" : ")?");
+                i++;
+                continue;
+            }
+            if (!Character.isLetter(c)) {
+                regex.append(Pattern.quote(String.valueOf(c)));
+                i++;
+                continue;
+            }
+            int count = 1;
+            while (i + count < format.length() && format.charAt(i + count) == c) {
+                count++;
+            }
+            i += count;
+            switch (c) {
+                case 'y', 'u', 'Y' -> regex.append(count == 2 ? "\\d{2}" : "\\d{" + count + ",}");
+                case 'M', 'L', 'Q', 'q', 'e', 'c' -> regex.append(count >= 3 ? TEXT_FIELD
+                        : count == 2 ? "\\d{2}" : "\\d{1,2}");
+                case 'E', 'a', 'B', 'G', 'z', 'v', 'V', 'O', 'X', 'x', 'Z' -> regex.append(TEXT_FIELD);
+                default -> regex.append(count == 1 ? "\\d+" : "\\d{" + count + "}");
+            }
+        }
+        return regex.toString();
+    }
+}
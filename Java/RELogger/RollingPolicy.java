@@ -0,0 +1,125 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: RollingPolicy.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * When a rolling log file is closed and a new segment started: after a size
+ * limit, at hourly or daily boundaries in the local time zone, or both.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Roll-over settings for {@link RELogger#initRolling(String, String, RollingPolicy)}.
+ * <pre>
+ *     RollingPolicy.size(100 * 1024 * 1024)
+ *     RollingPolicy.daily().withMaxBytes(1L &lt;&lt; 30)
+ * </pre>
+ */
+public final class RollingPolicy {
+
+    /** Roll once a segment would exceed this many bytes; 0 for no size limit. */
+    private final long maxBytes;
+
+    /** Time boundary to roll at, {@link ChronoUnit#HOURS} or {@link ChronoUnit#DAYS}; null for none. */
+    private final ChronoUnit interval;
+
+    private RollingPolicy(long maxBytes, ChronoUnit interval) {
+        this.maxBytes = maxBytes;
+        this.interval = interval;
+    }
+
+    /**
+     * Rolls whenever a segment would grow beyond a size.
+     *
+     * @param maxBytes Maximum size of a segment in bytes.
+     * @return The size-based policy.
+     */
+    public static RollingPolicy size(long maxBytes) {
+        return new RollingPolicy(checkSize(maxBytes), null);
+    }
+
+    /**
+     * Rolls at the start of every hour.
+     *
+     * @return The hourly policy.
+     */
+    public static RollingPolicy hourly() {
+        return new RollingPolicy(0, ChronoUnit.HOURS);
+    }
+
+    /**
+     * Rolls at local midnight.
+     *
+     * @return The daily policy.
+     */
+    public static RollingPolicy daily() {
+        return new RollingPolicy(0, ChronoUnit.DAYS);
+    }
+
+    /**
+     * Returns a policy that additionally rolls whenever a segment would grow
+     * beyond a size.
+     *
+     * @param maxBytes Maximum size of a segment in bytes.
+     * @return The combined policy.
+     */
+    public RollingPolicy withMaxBytes(long maxBytes) {
+        return new RollingPolicy(checkSize(maxBytes), interval);
+    }
+
+    /**
+     * Returns the size limit of a segment.
+     *
+     * @return The limit in bytes, or 0 if segments are not rolled by size.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns whether segments are rolled at time boundaries.
+     *
+     * @return {@code true} for hourly and daily policies.
+     */
+    public boolean isTimeBased() {
+        return interval != null;
+    }
+
+    /**
+     * Returns the first time boundary after the given time.
+     *
+     * @param millis A time in epoch milliseconds.
+     * @return The next boundary in epoch milliseconds, or {@link Long#MAX_VALUE}
+     *         if the policy has no time boundaries.
+     */
+    long nextBoundary(long millis) {
+        if (interval == null) {
+            return Long.MAX_VALUE;
+        }
+        ZonedDateTime time = Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault());
+        return time.truncatedTo(interval).plus(1, interval).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Validates a size limit.
+     *
+     * @param maxBytes The limit.
+     * @return The limit.
+     */
+    private static long checkSize(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        return maxBytes;
+    }
+}
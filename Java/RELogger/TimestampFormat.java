@@ -0,0 +1,267 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: TimestampFormat.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Renders log timestamps straight into the output buffer. Everything down
+ * to the second, and the zone offset, is rendered once per second and cached
+ * as bytes; per event only the fractional digits are written. Custom
+ * DateTimeFormatter patterns are cached the same way.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * Timestamp layout of the log line: time of day ({@code 17:22:21.123}),
+ * full ISO-8601 with offset ({@code 2026-10-18T17:22:21.123+02:00}) or a
+ * custom pattern, in the system time zone.
+ * <p>
+ * Instances are immutable apart from their thread-safe per-second cache and
+ * can be shared by any number of formatting threads.
+ */
+public final class TimestampFormat {
+
+    /** The default {@code HH:mm:ss} format of the original logger. */
+    private static final TimestampFormat DEFAULT = new TimestampFormat(TimestampPrecision.SECONDS, false, null, null, '.');
+
+    /** Fractional digits to render. */
+    private final TimestampPrecision precision;
+
+    /** Whether to render the date and zone offset as well. */
+    private final boolean iso8601;
+
+    /** Custom pattern rendering the text before the fraction, or null for the built-in layouts. */
+    private final DateTimeFormatter prefixFormatter;
+
+    /** Custom pattern rendering the text after the fraction, or null. */
+    private final DateTimeFormatter suffixFormatter;
+
+    /** Character between the seconds and the fraction. */
+    private final byte fractionSeparator;
+
+    /** Most recently rendered second; replaced, never mutated. */
+    private volatile RenderedSecond cache = new RenderedSecond(Long.MIN_VALUE, new byte[0], new byte[0]);
+
+    private TimestampFormat(TimestampPrecision precision, boolean iso8601, DateTimeFormatter prefixFormatter,
+                            DateTimeFormatter suffixFormatter, char fractionSeparator) {
+        this.precision = precision;
+        this.iso8601 = iso8601;
+        this.prefixFormatter = prefixFormatter;
+        this.suffixFormatter = suffixFormatter;
+        this.fractionSeparator = (byte) fractionSeparator;
+    }
+
+    /**
+     * Time of day only, {@code HH:mm:ss} plus the requested fraction.
+     *
+     * @param precision Fractional digits to render.
+     * @return The time-of-day format.
+     */
+    public static TimestampFormat time(TimestampPrecision precision) {
+        Objects.requireNonNull(precision, "TimestampPrecision cannot be null");
+        return precision == TimestampPrecision.SECONDS
+                ? DEFAULT
+                : new TimestampFormat(precision, false, null, null, '.');
+    }
+
+    /**
+     * Full ISO-8601 date and time with zone offset, e.g.
+     * {@code 2026-10-18T17:22:21.123+02:00}.
+     *
+     * @param precision Fractional digits to render.
+     * @return The ISO-8601 format.
+     */
+    public static TimestampFormat iso8601(TimestampPrecision precision) {
+        Objects.requireNonNull(precision, "TimestampPrecision cannot be null");
+        return new TimestampFormat(precision, true, null, null, '.');
+    }
+
+    /**
+     * Custom {@link DateTimeFormatter} pattern, such as {@code yyyy-MM-dd HH:mm:ss,SSS}.
+     * Fractional seconds are supported as a single run of exactly 3 or 6
+     * {@code S} letters after a {@code '.'} or {@code ','}; other
+     * sub-second fields are rejected because the rest is cached per second.
+     *
+     * @param pattern The pattern.
+     * @return The custom format.
+     * @throws IllegalArgumentException If the pattern is invalid or unsupported.
+     */
+    public static TimestampFormat ofPattern(String pattern) {
+        Objects.requireNonNull(pattern, "Pattern cannot be null");
+        int fractionStart = -1;
+        int fractionEnd = -1;
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (quoted) {
+                continue;
+            } else if (c == 'S') {
+                if (fractionStart >= 0) {
+                    throw new IllegalArgumentException("Only one fraction-of-second field is supported: " + pattern);
+                }
+                fractionStart = i;
+                fractionEnd = i;
+                while (fractionEnd < pattern.length() && pattern.charAt(fractionEnd) == 'S') {
+                    fractionEnd++;
+                }
+                i = fractionEnd - 1;
+            } else if (c == 'n' || c == 'N' || c == 'A') {
+                throw new IllegalArgumentException("Sub-second field '" + c + "' is not supported: " + pattern);
+            }
+        }
+        if (fractionStart < 0) {
+            return new TimestampFormat(TimestampPrecision.SECONDS, false, formatter(pattern), null, '.');
+        }
+        TimestampPrecision precision = switch (fractionEnd - fractionStart) {
+            case 3 -> TimestampPrecision.MILLIS;
+            case 6 -> TimestampPrecision.MICROS;
+            default -> throw new IllegalArgumentException("Fraction of second must be SSS or SSSSSS: " + pattern);
+        };
+        char separator = fractionStart > 0 ? pattern.charAt(fractionStart - 1) : 0;
+        if (separator != '.' && separator != ',') {
+            throw new IllegalArgumentException("Fraction of second must follow '.' or ',': " + pattern);
+        }
+        String suffix = pattern.substring(fractionEnd);
+        return new TimestampFormat(precision, false, formatter(pattern.substring(0, fractionStart - 1)),
+                suffix.isEmpty() ? null : formatter(suffix), separator);
+    }
+
+    /**
+     * Compiles one part of a custom pattern.
+     *
+     * @param pattern The pattern part.
+     * @return The formatter.
+     * @throws IllegalArgumentException If the pattern is invalid.
+     */
+    private static DateTimeFormatter formatter(String pattern) {
+        return DateTimeFormatter.ofPattern(pattern);
+    }
+
+    /**
+     * Returns the default {@code HH:mm:ss} format.
+     *
+     * @return The default format.
+     */
+    static TimestampFormat defaultFormat() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the fractional-second precision.
+     *
+     * @return The precision.
+     */
+    public TimestampPrecision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns whether the date and zone offset are rendered.
+     *
+     * @return {@code true} for ISO-8601.
+     */
+    public boolean isIso8601() {
+        return iso8601;
+    }
+
+    /** Immutable rendering of one second, shared by all formatting threads. */
+    private static final class RenderedSecond {
+        /** The second, in seconds since the epoch. */
+        final long epochSecond;
+        /** Everything up to and including the seconds digits. */
+        final byte[] prefix;
+        /** The zone offset for ISO-8601, otherwise empty. */
+        final byte[] suffix;
+
+        /**
+         * @param epochSecond The second, in seconds since the epoch.
+         * @param prefix      Rendered text before the fraction.
+         * @param suffix      Rendered text after the fraction.
+         */
+        RenderedSecond(long epochSecond, byte[] prefix, byte[] suffix) {
+            this.epochSecond = epochSecond;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+    }
+
+    /**
+     * Appends the timestamp. Allocates only when the second changes.
+     *
+     * @param epochMicros Time in microseconds since the epoch.
+     * @param out         The buffer to append to.
+     */
+    void render(long epochMicros, LogBuffer out) {
+        long second = Math.floorDiv(epochMicros, 1_000_000L);
+        RenderedSecond rendered = cache;
+        if (rendered.epochSecond != second) {
+            rendered = renderSecond(second);
+            cache = rendered;
+        }
+        out.append(rendered.prefix);
+        int digits = precision.getDigits();
+        if (digits > 0) {
+            int micros = (int) Math.floorMod(epochMicros, 1_000_000L);
+            out.append(fractionSeparator).appendPadded(digits == 3 ? micros / 1000 : micros, digits);
+        }
+        out.append(rendered.suffix);
+    }
+
+    /**
+     * Renders the cached parts of one second in the system time zone.
+     *
+     * @param epochSecond The second to render.
+     * @return The rendered second.
+     */
+    private RenderedSecond renderSecond(long epochSecond) {
+        if (prefixFormatter != null) {
+            ZonedDateTime time = Instant.ofEpochSecond(epochSecond).atZone(ZoneId.systemDefault());
+            byte[] suffix = suffixFormatter != null
+                    ? suffixFormatter.format(time).getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+            return new RenderedSecond(epochSecond, prefixFormatter.format(time).getBytes(StandardCharsets.UTF_8),
+                    suffix);
+        }
+        ZoneOffset offset = ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochSecond(epochSecond));
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+        LogBuffer buffer = new LogBuffer();
+        if (iso8601) {
+            buffer.appendPadded(time.getYear(), 4).append((byte) '-')
+                    .appendTwoDigits(time.getMonthValue()).append((byte) '-')
+                    .appendTwoDigits(time.getDayOfMonth()).append((byte) 'T');
+        }
+        buffer.appendTwoDigits(time.getHour()).append((byte) ':')
+                .appendTwoDigits(time.getMinute()).append((byte) ':')
+                .appendTwoDigits(time.getSecond());
+        byte[] prefix = buffer.toByteArray();
+
+        buffer.reset();
+        if (iso8601) {
+            int total = offset.getTotalSeconds();
+            if (total == 0) {
+                buffer.append((byte) 'Z');
+            } else {
+                int absolute = Math.abs(total);
+                buffer.append((byte) (total < 0 ? '-' : '+'))
+                        .appendTwoDigits(absolute / 3600).append((byte) ':')
+                        .appendTwoDigits(absolute / 60 % 60);
+            }
+        }
+        return new RenderedSecond(epochSecond, prefix, buffer.toByteArray());
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * -----------------------------------------------------------------------------
+ * File: TimestampPrecision.java
+ * Project: RELogger
+ * Author: Jayansh Devgan
+ * Date: October 18, 2026
+ * -----------------------------------------------------------------------------
+ * Description:
+ * Defines the fractional-second precision of rendered log timestamps.
+ * -----------------------------------------------------------------------------
+ */
+
+package RELogger;
+
+/**
+ * Enumeration of timestamp precisions used by {@link TimestampFormat}.
+ */
+public enum TimestampPrecision {
+    SECONDS(0),  // HH:mm:ss
+    MILLIS(3),   // HH:mm:ss.SSS
+    MICROS(6);   // HH:mm:ss.SSSSSS
+
+    /** Number of fractional digits rendered after the seconds. */
+    private final int digits;
+
+    /**
+     * Constructs a precision with the given number of fractional digits.
+     *
+     * @param digits Number of fractional digits.
+     */
+    TimestampPrecision(int digits) {
+        this.digits = digits;
+    }
+
+    /**
+     * Returns the number of fractional digits rendered after the seconds.
+     *
+     * @return The digit count.
+     */
+    public int getDigits() {
+        return digits;
+    }
+}